@@ -1,9 +1,23 @@
 package net.progressit.jsonformat.ui;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
 import org.tbee.javafx.scene.layout.MigPane;
 
 import com.google.gson.JsonParseException;
 
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ScrollPane;
@@ -14,6 +28,8 @@ import net.progressit.progressive.PComponent;
 
 public class JsonFormatPane extends PComponent<JsonFormatterData, Object>{
 	
+	private static final long FORMAT_DEBOUNCE_MS = 250;
+	
 	private JsonOrderedFormatBO bo = new JsonOrderedFormatBO();
 	
 	private boolean programSettingData = false;
@@ -26,9 +42,79 @@ public class JsonFormatPane extends PComponent<JsonFormatterData, Object>{
 	private HBox controls = new HBox();
 	private CheckBox chkPrettyPrint = new CheckBox("Pretty Print");
 	private CheckBox chkSerializeNulls = new CheckBox("Serialize Nulls");
+	private String renderedOutput = null;
+	
+	/**
+	 * Formatting runs here, off the FX thread, so that typing is not held up by large documents.
+	 * Only the latest job matters: older ones are cancelled before they start, or stop reading as soon as they find they are stale.
+	 * Removing the pane cancels the jobs the same way. The (daemon) thread is kept for the life of the pane.
+	 */
+	private final ScheduledExecutorService formatExecutor = Executors.newSingleThreadScheduledExecutor((r)->{
+		Thread thread = new Thread(r, "json-format");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicLong formatGeneration = new AtomicLong();
+	private ScheduledFuture<?> pendingFormat = null;
+	
 	public JsonFormatPane(PPlacers placers) {
 		super(placers);
 	}
+	
+	/**
+	 * Input or options changed. Show them right away, and format after the typing settles.
+	 */
+	private void setInputData(JsonFormatterData newData) {
+		setData(newData);
+		long generation = formatGeneration.incrementAndGet();
+		if(pendingFormat!=null) {
+			pendingFormat.cancel(false);
+		}
+		pendingFormat = formatExecutor.schedule(()->format(newData, generation), FORMAT_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+	}
+	
+	private void format(JsonFormatterData data, long generation) {
+		BooleanSupplier stale = ()->formatGeneration.get()!=generation;
+		String resultJson = null;
+		try {
+			String input = data.getInputJson();
+			input = (input==null || "".equals(input.trim()))?"":input;
+			StringWriter out = new StringWriter(input.length());
+			bo.orderAndFormatJson(new StaleCheckingReader(new StringReader(input), stale), out, data.isPrettyPrint(), data.isSerializeNulls());
+			resultJson = out.toString();
+		}catch(JsonParseException e) {
+			resultJson = e.getLocalizedMessage();
+		}catch(RuntimeException e) {
+			resultJson = e.toString();
+		}
+		if(stale.getAsBoolean()) {
+			return; //Newer input has come in, and this result (or failure) is of no use.
+		}
+		String formatted = resultJson;
+		Platform.runLater(()->{
+			if(!stale.getAsBoolean()) {
+				setData(getData().toBuilder().outputJson(formatted).build());
+			}
+		});
+	}
+	
+	/**
+	 * Stops a formatting job at its next read, once newer input has come in.
+	 */
+	private static class StaleCheckingReader extends FilterReader{
+		private final BooleanSupplier stale;
+		private StaleCheckingReader(Reader in, BooleanSupplier stale) {
+			super(in);
+			this.stale = stale;
+		}
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if(stale.getAsBoolean()) {
+				throw new InterruptedIOException("Input changed while formatting");
+			}
+			return super.read(cbuf, off, len);
+		}
+	}
 
 	@Override
 	protected PDataPeekers<JsonFormatterData> getDataPeekers() {
@@ -40,16 +126,6 @@ public class JsonFormatPane extends PComponent<JsonFormatterData, Object>{
 		return new PRenderers<JsonFormatterData> (
 					()-> mainPane,
 					(data)->{ 
-						String resultJson = null; 
-						try {
-							String input = data.getInputJson();
-							input = (input==null || "".equals(input.trim()))?"":input;
-							resultJson = bo.orderAndFormatJson(input, data.isPrettyPrint(), data.isSerializeNulls());
-						}catch(JsonParseException e) {
-							resultJson = e.getLocalizedMessage();
-						}catch(RuntimeException e) {
-							resultJson = e.toString();
-						}
 						if(!taInput.getText().equals(data.getInputJson())) {
 							programSettingData = true;
 							taInput.setText(data.getInputJson());
@@ -61,7 +137,10 @@ public class JsonFormatPane extends PComponent<JsonFormatterData, Object>{
 						if(data.isSerializeNulls() != chkSerializeNulls.isSelected()) {
 							chkSerializeNulls.setSelected(data.isSerializeNulls());
 						}
-						taOutput.setText(resultJson);
+						if(data.getOutputJson()!=renderedOutput) { //Same String instance means same result, skip comparing megabytes.
+							renderedOutput = data.getOutputJson();
+							taOutput.setText(renderedOutput);
+						}
 					},
 					(data)-> new PChildrenPlan()
 				);
@@ -90,26 +169,33 @@ public class JsonFormatPane extends PComponent<JsonFormatterData, Object>{
 				
 				chkPrettyPrint.setOnAction((e)->{
 					JsonFormatterData newData = getData().toBuilder().prettyPrint(chkPrettyPrint.isSelected()).build();
-					setData(newData);
+					setInputData(newData);
 				});
 				chkSerializeNulls.setOnAction((e)->{
 					JsonFormatterData newData = getData().toBuilder().serializeNulls(chkSerializeNulls.isSelected()).build();
-					setData(newData);
+					setInputData(newData);
 				});
 				
 				//Below gets fired even when we programmatically do setText on the UI field?
 				taInput.textProperty().addListener( (observable, oldValue, newValue)->{
 					//TODO: Does it stabilise and all the remove/insert events have fired?
 					if(!programSettingData) {
-						System.out.println("Data: " + getData());
 						JsonFormatterData newData = getData().toBuilder().inputJson(newValue).build();
-						setData(newData);
+						setInputData(newData);
 					}
 				});
 			}
 			@Override
 			public void postProps() {
-				setData( new JsonFormatterData("", true, true) );
+				setInputData( new JsonFormatterData("", true, true, null) );
+			}
+			@Override
+			public void preRemove() {
+				formatGeneration.incrementAndGet(); //A running job stops at its next read. The executor is kept, for when the pane is placed again.
+				if(pendingFormat!=null) {
+					pendingFormat.cancel(false);
+					pendingFormat = null;
+				}
 			}
 		};
 	}
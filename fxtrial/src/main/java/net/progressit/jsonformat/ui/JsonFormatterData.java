@@ -2,11 +2,18 @@ package net.progressit.jsonformat.ui;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 @Builder(toBuilder = true)
 public class JsonFormatterData{
+	@ToString.Exclude //Can be megabytes, and data gets logged on every setData.
 	private final String inputJson;
 	private final boolean prettyPrint;
 	private final boolean serializeNulls;
-}
\ No newline at end of file
+	/**
+	 * Formatted result for the current input and options, filled in by the background formatting job.
+	 */
+	@ToString.Exclude
+	private final String outputJson;
+}
@@ -1,62 +1,279 @@
 package net.progressit.jsonformat.ui;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
+import lombok.Data;
+
+/**
+ * Orders the keys of every JSON object (at every level), and formats the result.
+ * <p>Streams from a <code>JsonReader</code>, without building a tree. Each value is written once, as final text (pretty or compact, at the indentation of its depth).
+ * Only the members of the objects which are still open are buffered, since an object can only be written after its last key is read.
+ * A member's text is kept as a fragment, which the enclosing object splices in by reference once sorted (short text is simply copied), so nested text is never re-parsed, nor copied level after level.
+ * Strings are escaped by a <code>JsonWriter</code>, like Gson does. Numbers are copied as they were written, so there is no loss of precision.</p>
+ * <p>The root has to be an object, as it was when the input was read into a <code>Map</code>.</p>
+ * <p>Throughput target: 100 MB of input in under 10 seconds (10 MB/s or better), compact or pretty printed, with a 1 GB heap.
+ * The whole (formatted) document is buffered once, as the root object is only written after its last key is read.</p>
+ *
+ * @author theodore.r
+ *
+ */
 public class JsonOrderedFormatBO {
-	@SuppressWarnings("unchecked")
+	private static final Comparator<Member> BY_NAME = Comparator.comparing(Member::getName);
+	private static final String INDENT = "  ";
+	/**
+	 * Member text of this length or more is spliced in by reference. Shorter text is cheaper to copy than to keep as a fragment.
+	 */
+	private static final int SPLICE_BY_REFERENCE = 256;
+	
+	@Data
+	private static class Member{
+		private final String name;
+		private final Object value; //Text or Fragment, null for a null value
+	}
+	
 	public String orderAndFormatJson(String inputJson, boolean prettyPrint, boolean serializeNulls) {
-		Map<String,Object> jsonData = new Gson().fromJson(inputJson, Map.class);
-		Map<String,Object> outOrderedData = getOrdered(jsonData);
-		GsonBuilder gb = new GsonBuilder();
-		if(prettyPrint)  gb.setPrettyPrinting();
-		if(serializeNulls)  gb.serializeNulls();
-		Gson g = gb.create();
-		return g.toJson(outOrderedData);
+		StringWriter out = new StringWriter(inputJson.length());
+		orderAndFormatJson(new StringReader(inputJson), out, prettyPrint, serializeNulls);
+		return out.toString();
 	}
-
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private Map<String, Object> getOrdered(Map<String, Object> jsonData) {
-		//Res container
-		Map<String,Object> outOrderedData = new LinkedHashMap<String, Object>();
+	
+	/**
+	 * Streaming form, for inputs which should not be held as one String.
+	 * An empty input gives <code>null</code>, like Gson does.
+	 */
+	public void orderAndFormatJson(Reader inputJson, Writer outputJson, boolean prettyPrint, boolean serializeNulls) {
+		try {
+			JsonReader in = new JsonReader(inputJson);
+			in.setLenient(true);
+			
+			if(isEmpty(in)) {
+				outputJson.write("null");
+			}else {
+				if(in.peek()!=JsonToken.BEGIN_OBJECT) {
+					throw new JsonSyntaxException("Expected BEGIN_OBJECT but was " + in.peek() + " at path " + in.getPath());
+				}
+				Fragment document = new Fragment();
+				new OrderedFormatter(prettyPrint, serializeNulls).copyOrdered(in, document, 0);
+				if(in.peek()!=JsonToken.END_DOCUMENT) {
+					throw new JsonIOException("JSON document was not fully consumed.");
+				}
+				document.writeTo(outputJson);
+			}
+			outputJson.flush();
+		}catch(MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private boolean isEmpty(JsonReader in) throws IOException {
+		try {
+			return in.peek()==JsonToken.END_DOCUMENT;
+		}catch(EOFException e) {
+			return true;
+		}
+	}
+	
+	/**
+	 * Formatted text under construction: literal text, with the fragments of sorted members spliced in by reference.
+	 * Consecutive literal text is kept together, so there is one piece per spliced member, not one per token.
+	 */
+	private static final class Fragment {
+		private final List<Object> parts = new ArrayList<>(2);
+		private StringBuilder text = new StringBuilder();
+		
+		private Fragment append(CharSequence literal) {
+			text.append(literal);
+			return this;
+		}
+		private Fragment append(char literal) {
+			text.append(literal);
+			return this;
+		}
+		/**
+		 * Adds a member value: a fragment by reference, or its text if it was short.
+		 */
+		private void splice(Object value) {
+			if(value instanceof Fragment) {
+				flushText();
+				parts.add(value);
+			}else {
+				text.append((String) value);
+			}
+		}
+		private void flushText() {
+			if(text.length()>0) {
+				parts.add(text.toString());
+				text = new StringBuilder(); //Not reused, so that no spare capacity is held for the rest of the run
+			}
+		}
+		/**
+		 * The finished member value: its text if short and with nothing spliced in, else this fragment.
+		 */
+		private Object finish() {
+			if(parts.isEmpty() && text.length()<SPLICE_BY_REFERENCE) {
+				return text.toString();
+			}
+			flushText();
+			return this;
+		}
+		private void writeTo(Writer out) throws IOException {
+			for(Object part:parts) {
+				if(part instanceof Fragment) {
+					((Fragment) part).writeTo(out);
+				}else {
+					out.write((String) part);
+				}
+			}
+			out.append(text);
+		}
+	}
+	
+	/**
+	 * The settings and scratch state of one formatting run.
+	 */
+	private static final class OrderedFormatter {
+		private final boolean pretty;
+		private final boolean serializeNulls;
+		/**
+		 * Escapes one string at a time into the scratch buffer. Lenient, so that it takes any number of top level values.
+		 */
+		private final StringWriter scratch = new StringWriter();
+		private final JsonWriter stringWriter = new JsonWriter(scratch);
+		/**
+		 * Line break and indentation, by depth.
+		 */
+		private final List<String> newLines = new ArrayList<>();
 		
-		//Sort keys
-		Set<String> keys = jsonData.keySet();
-		List<String> orderedKeys = new ArrayList<>(keys.size());
-		orderedKeys.addAll(keys);
-		Collections.sort(orderedKeys);
+		private OrderedFormatter(boolean pretty, boolean serializeNulls) {
+			this.pretty = pretty;
+			this.serializeNulls = serializeNulls;
+			stringWriter.setHtmlSafe(true); //Same escaping as a default Gson.
+			stringWriter.setLenient(true);
+		}
 		
-		for(String key:orderedKeys) {
-			System.out.println(key);
-			Object val = jsonData.get(key);
-			if(val instanceof Map) {
-				Map<String,Object> valMap = (Map<String,Object>) val;
-				Map<String,Object> outOrderedVal = getOrdered(valMap);
-				outOrderedData.put(key, outOrderedVal); //Copy the ordered map.
-			} else if (val instanceof List) {
-				outOrderedData.put(key, val); //Copy the same list.
-				List valList = (List) val;
-				for(int i=0;i<valList.size();i++) {
-					Object valInner = valList.get(i);
-					
-					if(valInner instanceof Map) {
-						Map<String,Object> valMap = (Map<String,Object>) valInner;
-						Map<String,Object> outOrderedVal = getOrdered(valMap);
-						valList.set(i, outOrderedVal); //Replace this map in the list with ordered one.
+		/**
+		 * Copies one value into <code>out</code>, as final text for the given depth. Objects are written with their members sorted by name.
+		 */
+		private void copyOrdered(JsonReader in, Fragment out, int depth) throws IOException {
+			switch(in.peek()) {
+			case BEGIN_OBJECT:
+				in.beginObject();
+				List<Member> members = new ArrayList<>();
+				while(in.hasNext()) {
+					String name = in.nextName();
+					JsonToken token = in.peek();
+					if(token==JsonToken.NULL) {
+						in.nextNull();
+						members.add(new Member(name, null));
+					}else if(token==JsonToken.BEGIN_OBJECT || token==JsonToken.BEGIN_ARRAY) {
+						Fragment value = new Fragment();
+						copyOrdered(in, value, depth + 1);
+						members.add(new Member(name, value.finish()));
+					}else {
+						StringBuilder value = new StringBuilder();
+						copyPrimitive(in, value);
+						members.add(new Member(name, value.toString()));
 					}
 				}
-			} else {
-				outOrderedData.put(key, val); //Copy the same item.
+				in.endObject();
+				members.sort(BY_NAME);
+				
+				out.append('{');
+				int written = 0;
+				for(int i=0;i<members.size();i++) {
+					Member member = members.get(i);
+					if(i>0 && members.get(i-1).getName().equals(member.getName())) {
+						throw new JsonSyntaxException("duplicate key: " + member.getName());
+					}
+					if(member.getValue()==null && !serializeNulls) {
+						continue;
+					}
+					if(written++>0) out.append(',');
+					out.append(newLine(depth + 1)).append(escape(member.getName())).append(pretty?": ":":");
+					out.splice(member.getValue()==null?"null":member.getValue());
+				}
+				if(written>0) out.append(newLine(depth));
+				out.append('}');
+				break;
+			case BEGIN_ARRAY:
+				in.beginArray();
+				out.append('[');
+				boolean empty = true;
+				while(in.hasNext()) {
+					if(!empty) out.append(',');
+					empty = false;
+					out.append(newLine(depth + 1));
+					copyOrdered(in, out, depth + 1);
+				}
+				in.endArray();
+				if(!empty) out.append(newLine(depth));
+				out.append(']');
+				break;
+			default:
+				copyPrimitive(in, out.text);
+			}
+		}
+		
+		private void copyPrimitive(JsonReader in, StringBuilder out) throws IOException {
+			switch(in.peek()) {
+			case STRING:
+				out.append(escape(in.nextString()));
+				break;
+			case NUMBER:
+				out.append(in.nextString()); //The literal as written, to keep precision.
+				break;
+			case BOOLEAN:
+				out.append(in.nextBoolean()?"true":"false");
+				break;
+			case NULL:
+				in.nextNull();
+				out.append("null");
+				break;
+			default:
+				throw new JsonSyntaxException("Unexpected " + in.peek() + " at " + in.getPath());
+			}
+		}
+		
+		/**
+		 * The quoted and escaped string. Valid until the next call.
+		 */
+		private CharSequence escape(String value) throws IOException {
+			StringBuffer buffer = scratch.getBuffer();
+			buffer.setLength(0);
+			stringWriter.value(value);
+			return buffer;
+		}
+		
+		private String newLine(int depth) {
+			if(!pretty) {
+				return "";
+			}
+			while(newLines.size()<=depth) {
+				StringBuilder sb = new StringBuilder("\n");
+				for(int i=0;i<newLines.size();i++) {
+					sb.append(INDENT);
+				}
+				newLines.add(sb.toString());
 			}
-			System.out.println("End: " + key);
+			return newLines.get(depth);
 		}
-		return outOrderedData;
 	}
 }
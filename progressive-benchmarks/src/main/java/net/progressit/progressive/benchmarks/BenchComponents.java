@@ -0,0 +1,368 @@
+package net.progressit.progressive.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import com.google.common.eventbus.Subscribe;
+
+import lombok.Data;
+import net.progressit.progressive.PChildPlan;
+import net.progressit.progressive.PChildrenPlan;
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PEventDispatcher;
+import net.progressit.progressive.PEventListener;
+import net.progressit.progressive.PLeafComponent;
+import net.progressit.progressive.PLifecycleHandler;
+import net.progressit.progressive.PPartition;
+import net.progressit.progressive.PPlacers;
+import net.progressit.progressive.helpers.PComponentHelper;
+import net.progressit.progressive.helpers.PMemoryComponent;
+import net.progressit.progressive.helpers.PSimpleLifecycleHandler;
+
+/**
+ * Headless PComponent trees used by the benchmarks. Swing lightweight components work with <code>java.awt.headless=true</code>,
+ * and all framework calls are made on the EDT through <code>onEdt</code>. The in-memory ones (<code>MemoryListParent</code>) run on a <code>PHeadlessExecutor</code> instead.
+ * 
+ * @author theodore.r
+ *
+ */
+final class BenchComponents {
+	static final PPlacers NO_PLACERS = new PPlacers((c)->{}, (c)->{});
+	
+	@Data
+	static class LeafEvent{
+		private final String value;
+	}
+	
+	@Data
+	static class ListProps{
+		private final List<String> items;
+		/** Changing just the generation forces a new children plan (and so, listener re-binding) for the same items. */
+		private final int generation;
+	}
+	
+	private BenchComponents() {
+	}
+	
+	static void onEdt(Runnable runnable) {
+		try {
+			SwingUtilities.invokeAndWait(runnable);
+		}catch(InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	static class Leaf extends PLeafComponent<String, String>{
+		private final JLabel label = new JLabel();
+		private final Dispatcher dispatcher;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		Leaf(PPlacers placers, Dispatcher dispatcher) {
+			super(placers, null);
+			this.dispatcher = dispatcher;
+		}
+		
+		void fire(String value) {
+			post(new LeafEvent(value));
+		}
+		@Override
+		protected PEventDispatcher createEventDispatcher() {
+			return dispatcher.create();
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return label;
+		}
+		@Override
+		protected void renderSelf(String data) {
+			label.setText(data);
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList(LeafEvent.class);
+		}
+	}
+	
+	static class OtherLeaf extends Leaf{
+		OtherLeaf(PPlacers placers, Dispatcher dispatcher) {
+			super(placers, dispatcher);
+		}
+	}
+	
+	/**
+	 * Renders one leaf per item. Each row gets its own listener on every render, like parents which create listeners inside the plan.
+	 */
+	static class ListParent extends PComponent<ListProps, ListProps>{
+		private final JPanel panel = new JPanel(null);
+		private final PPlacers rowPlacers = PComponentHelper.newSimpleContainerPlacer(panel);
+		private final ListMode mode;
+		private final Dispatcher dispatcher;
+		private boolean alternate = false;
+		private int events = 0;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		ListParent(ListMode mode, Dispatcher dispatcher) {
+			super(NO_PLACERS, null);
+			this.mode = mode;
+			this.dispatcher = dispatcher;
+		}
+		
+		int getEvents() {
+			return events;
+		}
+		@Override
+		protected PPartition partitionForSelf(ListProps data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected PPartition partitionForChildren(ListProps data) {
+			return PPartition.of(data.getItems(), data.getGeneration());
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return panel;
+		}
+		@Override
+		protected void renderSelf(ListProps data) {
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(ListProps data) {
+			alternate = !alternate;
+			PChildrenPlan plan = new PChildrenPlan();
+			for(String item:data.getItems()) {
+				Leaf row = mode==ListMode.REMOUNT && alternate?new OtherLeaf(rowPlacers, dispatcher):new Leaf(rowPlacers, dispatcher);
+				PEventListener listener = new PEventListener() {
+					@Subscribe
+					public void handle(LeafEvent e) {
+						events++;
+					}
+				};
+				plan.addChildPlan(PChildPlan.builder().component(row).props(item).listener(Optional.of(listener)).key(mode==ListMode.KEYED?item:null).build());
+			}
+			return plan;
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList();
+		}
+	}
+	
+	/**
+	 * A leaf rendered into an in-memory node, so that rendering it costs next to nothing.
+	 */
+	static class MemoryLeaf extends PLeafComponent<String, String>{
+		private final PMemoryComponent node = new PMemoryComponent("leaf");
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		MemoryLeaf(PPlacers placers) {
+			super(placers, null);
+		}
+		
+		@Override
+		protected JComponent getUiComponent() {
+			return node;
+		}
+		@Override
+		protected void renderSelf(String data) {
+			node.setProperty("text", data);
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList(LeafEvent.class);
+		}
+	}
+	
+	static class OtherMemoryLeaf extends MemoryLeaf{
+		OtherMemoryLeaf(PPlacers placers) {
+			super(placers);
+		}
+	}
+	
+	/**
+	 * Renders one in-memory row per item, to measure reconciliation alone. Rows and their listeners are made once, up front, 
+	 * and every plan refers to the same ones (by item when keyed, else by position), so no plan allocates components or listeners.
+	 */
+	static class MemoryListParent extends PComponent<ListProps, ListProps>{
+		private final PMemoryComponent node = new PMemoryComponent("list");
+		private final PPlacers rowPlacers = PComponentHelper.newMemoryPlacer(node);
+		private final ListMode mode;
+		private final Map<String, MemoryLeaf> rowsByItem = new HashMap<>();
+		private final List<MemoryLeaf> rowsBySlot = new ArrayList<>();
+		private final List<MemoryLeaf> otherRowsBySlot = new ArrayList<>();
+		private final Map<MemoryLeaf, Optional<PEventListener>> listeners = new HashMap<>();
+		private boolean alternate = false;
+		private int events = 0;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		/**
+		 * @param items every item which the props will have
+		 * @param maxRows the most rows which the props will have
+		 */
+		MemoryListParent(ListMode mode, Collection<String> items, int maxRows) {
+			super(NO_PLACERS, null);
+			this.mode = mode;
+			if(mode==ListMode.KEYED) {
+				for(String item:items) {
+					rowsByItem.put(item, newRow(new MemoryLeaf(rowPlacers)));
+				}
+			}else {
+				for(int i=0;i<maxRows;i++) {
+					rowsBySlot.add(newRow(new MemoryLeaf(rowPlacers)));
+					otherRowsBySlot.add(newRow(new OtherMemoryLeaf(rowPlacers)));
+				}
+			}
+		}
+		
+		private MemoryLeaf newRow(MemoryLeaf row) {
+			listeners.put(row, Optional.of(new PEventListener() {
+				@Subscribe
+				public void handle(LeafEvent e) {
+					events++;
+				}
+			}));
+			return row;
+		}
+		
+		int getEvents() {
+			return events;
+		}
+		@Override
+		protected PPartition partitionForSelf(ListProps data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected PPartition partitionForChildren(ListProps data) {
+			return PPartition.of(data.getItems(), data.getGeneration());
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return node;
+		}
+		@Override
+		protected void renderSelf(ListProps data) {
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(ListProps data) {
+			alternate = !alternate;
+			List<MemoryLeaf> slots = mode==ListMode.REMOUNT && alternate?otherRowsBySlot:rowsBySlot;
+			PChildrenPlan plan = new PChildrenPlan();
+			List<String> items = data.getItems();
+			for(int i=0;i<items.size();i++) {
+				String item = items.get(i);
+				MemoryLeaf row = mode==ListMode.KEYED?rowsByItem.get(item):slots.get(i);
+				plan.addChildPlan(PChildPlan.builder().component(row).props(item).listener(listeners.get(row)).key(mode==ListMode.KEYED?item:null).build());
+			}
+			return plan;
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList();
+		}
+	}
+	
+	/**
+	 * A chain of nested panels, each passing the same value down to its only child, ending in a leaf.
+	 */
+	static class ChainNode extends PComponent<String, String>{
+		private final JPanel panel = new JPanel(null);
+		private final JLabel label = new JLabel();
+		private final PComponent<String, String> child;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void prePlacement() {
+				panel.add(label);
+			}
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		ChainNode(PPlacers placers, int depth) {
+			super(placers, null);
+			PPlacers childPlacers = PComponentHelper.newSimpleContainerPlacer(panel);
+			this.child = depth<=1?new Leaf(childPlacers, Dispatcher.PRECOMPILED):new ChainNode(childPlacers, depth - 1);
+		}
+		
+		@Override
+		protected PPartition partitionForSelf(String data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected PPartition partitionForChildren(String data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return panel;
+		}
+		@Override
+		protected void renderSelf(String data) {
+			label.setText(data);
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(String data) {
+			PChildrenPlan plan = new PChildrenPlan();
+			plan.addChildPlan(PChildPlan.builder().component(child).props(data).listener(Optional.empty()).build());
+			return plan;
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList();
+		}
+	}
+}
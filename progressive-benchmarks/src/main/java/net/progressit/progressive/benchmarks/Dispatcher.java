@@ -0,0 +1,19 @@
+package net.progressit.progressive.benchmarks;
+
+import net.progressit.progressive.PEventDispatcher;
+import net.progressit.progressive.PGuavaEventDispatcher;
+import net.progressit.progressive.PPrecompiledEventDispatcher;
+
+/**
+ * Event dispatcher used by the benchmark components.
+ * 
+ * @author theodore.r
+ *
+ */
+public enum Dispatcher{
+	PRECOMPILED, GUAVA;
+	
+	PEventDispatcher create() {
+		return this==GUAVA?new PGuavaEventDispatcher():new PPrecompiledEventDispatcher();
+	}
+}
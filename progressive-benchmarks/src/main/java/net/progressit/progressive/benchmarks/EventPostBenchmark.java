@@ -0,0 +1,94 @@
+package net.progressit.progressive.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.eventbus.Subscribe;
+
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PEventListener;
+import net.progressit.progressive.benchmarks.BenchComponents.Leaf;
+import net.progressit.progressive.benchmarks.BenchComponents.LeafEvent;
+import net.progressit.progressive.benchmarks.BenchComponents.ListParent;
+import net.progressit.progressive.benchmarks.BenchComponents.ListProps;
+
+/**
+ * Event dispatch: the Guava <code>EventBus</code> path against the precompiled dispatcher.
+ * <ul>
+ * <li>post: throughput of <code>post()</code> to a registered listener</li>
+ * <li>rebindRows: a render of many list rows, where every row gets a new listener (clear + set) and no other change</li>
+ * </ul>
+ * 
+ * @author theodore.r
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPostBenchmark {
+	private static final int POSTS_PER_INVOCATION = 1000;
+	
+	@Param({"PRECOMPILED", "GUAVA"})
+	public Dispatcher dispatcher;
+	
+	@Param({"2000"})
+	public int rows;
+	
+	private Leaf leaf;
+	private ListParent list;
+	private ListProps[] props;
+	private int counter = 0;
+	private Blackhole blackhole;
+	
+	@Setup(Level.Trial)
+	public void setup(Blackhole blackhole) {
+		this.blackhole = blackhole;
+		props = new ListProps[] {new ListProps(TreeRenderBenchmark.items(rows, "row"), 0), new ListProps(TreeRenderBenchmark.items(rows, "row"), 1)};
+		BenchComponents.onEdt(()->{
+			leaf = new Leaf(BenchComponents.NO_PLACERS, dispatcher);
+			PComponent.place(leaf, new PEventListener() {
+				@Subscribe
+				public void handle(LeafEvent e) {
+					EventPostBenchmark.this.blackhole.consume(e);
+				}
+			}, "leaf");
+			
+			list = new ListParent(ListMode.POSITIONAL, dispatcher);
+			PComponent.place(list, null, props[0]);
+		});
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(POSTS_PER_INVOCATION)
+	public void post() {
+		BenchComponents.onEdt(()->{
+			for(int i=0;i<POSTS_PER_INVOCATION;i++) {
+				leaf.fire("event");
+			}
+		});
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void rebindRows() {
+		ListProps next = props[++counter & 1];
+		BenchComponents.onEdt(()->list.setProps(next));
+	}
+}
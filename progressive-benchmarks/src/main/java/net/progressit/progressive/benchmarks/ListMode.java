@@ -0,0 +1,16 @@
+package net.progressit.progressive.benchmarks;
+
+/**
+ * How the rows of a benchmark list are planned.
+ * 
+ * @author theodore.r
+ *
+ */
+public enum ListMode{
+	/** Unkeyed rows, re-used by position. */
+	POSITIONAL,
+	/** Keyed rows, matched by key. */
+	KEYED,
+	/** Row classes alternate on every render, so nothing is re-used. */
+	REMOUNT
+}
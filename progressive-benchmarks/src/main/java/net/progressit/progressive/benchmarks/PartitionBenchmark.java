@@ -0,0 +1,91 @@
+package net.progressit.progressive.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.progressit.progressive.PChangeDetection;
+import net.progressit.progressive.PPartition;
+import net.progressit.progressive.PTrace;
+import net.progressit.progressive.helpers.PComponentHelper;
+
+/**
+ * Allocation and cost of change detection, per <code>setData</code>, against the rendered data (a list of 1000 strings).
+ * Run with <code>-prof gc</code> to see the bytes allocated per operation.
+ * <ul>
+ * <li>legacySet: <code>PComponentHelper.setWithAllData</code> partition and <code>Set.equals</code></li>
+ * <li>typedPartition: <code>PPartition.of</code> compared with <code>IDENTITY_HASH</code></li>
+ * <li>traceOff: a framework trace call with tracing switched off, which should allocate nothing (asserted by <code>PTraceTest</code> in progressive-core)</li>
+ * </ul>
+ * <p>Both approaches are given the same new data: the rendered object itself (<code>IDENTICAL</code>, where <code>IDENTITY_HASH</code> stops at the reference),
+ * an equal copy (<code>EQUAL</code>, which has to be compared in full), or a copy with the last element changed (<code>CHANGED</code>).</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionBenchmark {
+	public enum NewData{
+		IDENTICAL, EQUAL, CHANGED
+	}
+	
+	@State(Scope.Thread)
+	public static class Rendered{
+		@Param({"IDENTICAL", "EQUAL", "CHANGED"})
+		public NewData newData;
+		
+		private final List<String> rendered = TreeRenderBenchmark.items(1000, "item");
+		private final Set<Object> renderedSet = PComponentHelper.setWithAllData(rendered);
+		private final PPartition renderedPartition = PPartition.of(rendered);
+		private Object data;
+		
+		@Setup
+		public void setup() {
+			if(newData==NewData.IDENTICAL) {
+				data = rendered;
+				return;
+			}
+			List<String> copy = new ArrayList<>(rendered);
+			if(newData==NewData.CHANGED) {
+				copy.set(copy.size() - 1, "changed");
+			}
+			data = copy;
+		}
+	}
+	
+	private final Object data = TreeRenderBenchmark.items(1000, "item");
+	
+	@Benchmark
+	public boolean legacySet(Rendered state) {
+		return PComponentHelper.setWithAllData(state.data).equals(state.renderedSet);
+	}
+	
+	@Benchmark
+	public boolean typedPartition(Rendered state) {
+		return PPartition.of(state.data).sameAs(state.renderedPartition, PChangeDetection.IDENTITY_HASH);
+	}
+	
+	@Benchmark
+	public void traceOff() {
+		PTrace.trace(this, "Setting data ::", data);
+		PTrace.trace(this, "#i", 1000);
+	}
+}
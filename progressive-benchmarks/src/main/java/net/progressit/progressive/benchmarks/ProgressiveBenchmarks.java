@@ -0,0 +1,28 @@
+package net.progressit.progressive.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Takes the usual JMH command line options, but always runs headless,
+ * and writes the results as JSON (to <code>target/jmh-result.json</code> unless <code>-rff</code> is given), for comparison across builds.
+ * 
+ * @author theodore.r
+ *
+ */
+public class ProgressiveBenchmarks {
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		Options options = new OptionsBuilder()
+				.parent(commandLineOptions)
+				.jvmArgsAppend("-Djava.awt.headless=true")
+				.resultFormat(ResultFormatType.JSON)
+				.result(commandLineOptions.getResult().orElse("target/jmh-result.json"))
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,70 @@
+package net.progressit.progressive.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PHeadlessExecutor;
+import net.progressit.progressive.benchmarks.BenchComponents.ListProps;
+import net.progressit.progressive.benchmarks.BenchComponents.MemoryListParent;
+
+/**
+ * A list-shaped tree, where each render inserts (or removes) one row at the top.
+ * Compares prefix re-use by position, keyed reconciliation, and a full remount of all rows.
+ * <p>Runs on a <code>PHeadlessExecutor</code> with in-memory nodes, and with the rows and listeners made in the setup, so that it measures the diff
+ * (and the re-binding and placing it leads to), and not the EDT hand-off, Swing, or the building of components.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReconcileBenchmark {
+	@Param({"POSITIONAL", "KEYED", "REMOUNT"})
+	public ListMode mode;
+	
+	@Param({"100", "2000"})
+	public int rows;
+	
+	private final PHeadlessExecutor executor = new PHeadlessExecutor();
+	private MemoryListParent root;
+	private ListProps[] props;
+	private int counter = 0;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		List<String> items = TreeRenderBenchmark.items(rows, "row");
+		List<String> insertedAtTop = new ArrayList<>(rows + 1);
+		insertedAtTop.add("top");
+		insertedAtTop.addAll(items);
+		props = new ListProps[] {new ListProps(items, 0), new ListProps(insertedAtTop, 0)};
+		executor.run(()->{
+			root = new MemoryListParent(mode, insertedAtTop, rows + 1);
+			PComponent.place(root, null, props[0]);
+		});
+	}
+	
+	@Benchmark
+	public void insertOrRemoveAtTop() {
+		ListProps next = props[++counter & 1];
+		executor.run(()->root.setProps(next));
+	}
+}
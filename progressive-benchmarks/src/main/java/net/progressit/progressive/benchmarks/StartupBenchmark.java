@@ -0,0 +1,183 @@
+package net.progressit.progressive.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.progressit.progressive.PChildPlan;
+import net.progressit.progressive.PChildrenPlan;
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PHeadlessExecutor;
+import net.progressit.progressive.PLifecycleHandler;
+import net.progressit.progressive.PPartition;
+import net.progressit.progressive.PPlacers;
+import net.progressit.progressive.benchmarks.BenchComponents.Leaf;
+import net.progressit.progressive.helpers.PComponentHelper;
+import net.progressit.progressive.helpers.PSimpleLifecycleHandler;
+
+/**
+ * Startup of a multi-tab form, with the unselected tabs placed eagerly or deferred (<code>PChildPlan.deferred</code>), on a headless executor.
+ * <ul>
+ * <li>firstPaint: placing the form, up to the point where the UI thread would paint (the idle work is not run)</li>
+ * <li>fullyPlaced: the same, followed by the idle work, which places the deferred tabs</li>
+ * </ul>
+ * 
+ * @author theodore.r
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StartupBenchmark {
+	
+	@State(Scope.Benchmark)
+	public static class Form{
+		@Param({"10"})
+		public int tabs;
+		@Param({"100"})
+		public int fieldsPerTab;
+		@Param({"false", "true"})
+		public boolean deferred;
+	}
+	
+	@Benchmark
+	public TabbedForm firstPaint(Form form) {
+		PHeadlessExecutor executor = new PHeadlessExecutor();
+		TabbedForm root = new TabbedForm(form.tabs, form.fieldsPerTab, form.deferred);
+		executor.run(()->PComponent.place(root, null, 0));
+		return root;
+	}
+	
+	@Benchmark
+	public TabbedForm fullyPlaced(Form form) {
+		PHeadlessExecutor executor = new PHeadlessExecutor();
+		TabbedForm root = new TabbedForm(form.tabs, form.fieldsPerTab, form.deferred);
+		executor.run(()->PComponent.place(root, null, 0));
+		executor.runIdle();
+		return root;
+	}
+	
+	/**
+	 * Props are the selected tab. Every tab is planned, and the unselected ones are deferred if asked to.
+	 */
+	static class TabbedForm extends PComponent<Integer, Integer>{
+		private final JPanel panel = new JPanel(null);
+		private final List<Tab> tabs = new ArrayList<>();
+		private final boolean deferred;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		TabbedForm(int tabCount, int fieldsPerTab, boolean deferred) {
+			super(BenchComponents.NO_PLACERS, null);
+			this.deferred = deferred;
+			PPlacers tabPlacers = PComponentHelper.newSimpleContainerPlacer(panel);
+			for(int i=0;i<tabCount;i++) {
+				tabs.add(new Tab(tabPlacers, fieldsPerTab));
+			}
+		}
+		@Override
+		protected PPartition partitionForSelf(Integer data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected PPartition partitionForChildren(Integer data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return panel;
+		}
+		@Override
+		protected void renderSelf(Integer data) {
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(Integer data) {
+			PChildrenPlan plan = new PChildrenPlan();
+			for(int i=0;i<tabs.size();i++) {
+				plan.addChildPlan(PChildPlan.builder().component(tabs.get(i)).props("tab" + i).listener(Optional.empty()).deferred(deferred && i!=data).build());
+			}
+			return plan;
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList();
+		}
+	}
+	
+	/**
+	 * A panel of leaves, created on its first render.
+	 */
+	static class Tab extends PComponent<String, String>{
+		private final JPanel panel = new JPanel(null);
+		private final PPlacers fieldPlacers = PComponentHelper.newSimpleContainerPlacer(panel);
+		private final int fieldCount;
+		private final PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+		
+		Tab(PPlacers placers, int fieldCount) {
+			super(placers, null);
+			this.fieldCount = fieldCount;
+		}
+		@Override
+		protected PPartition partitionForSelf(String data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected PPartition partitionForChildren(String data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected JComponent getUiComponent() {
+			return panel;
+		}
+		@Override
+		protected void renderSelf(String data) {
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(String data) {
+			PChildrenPlan plan = new PChildrenPlan();
+			for(int i=0;i<fieldCount;i++) {
+				plan.addChildPlan(PChildPlan.builder().component(new Leaf(fieldPlacers, Dispatcher.PRECOMPILED)).props(data + "." + i).listener(Optional.empty()).build());
+			}
+			return plan;
+		}
+		@Override
+		protected PLifecycleHandler getLifecycleHandler() {
+			return lifecycleHandler;
+		}
+		@Override
+		protected List<Class<?>> declareEmittedEvents() {
+			return Arrays.asList();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package net.progressit.progressive.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.benchmarks.BenchComponents.ChainNode;
+import net.progressit.progressive.benchmarks.BenchComponents.ListParent;
+import net.progressit.progressive.benchmarks.BenchComponents.ListProps;
+
+/**
+ * Cost of one props change at the root of a headless tree, flowing down through <code>setData</code> and <code>diffAndRenderPlan</code>.
+ * <ul>
+ * <li>deep: a chain of nested components, where every level re-renders</li>
+ * <li>wide: one parent with many leaves, where every leaf gets new props (same plan shape)</li>
+ * </ul>
+ * 
+ * @author theodore.r
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeRenderBenchmark {
+	
+	@State(Scope.Benchmark)
+	public static class DeepTree{
+		@Param({"10", "100"})
+		public int depth;
+		
+		private ChainNode root;
+		private int counter = 0;
+		
+		@Setup(Level.Trial)
+		public void setup() {
+			BenchComponents.onEdt(()->{
+				root = new ChainNode(BenchComponents.NO_PLACERS, depth);
+				PComponent.place(root, null, "initial");
+			});
+		}
+	}
+	
+	@State(Scope.Benchmark)
+	public static class WideTree{
+		@Param({"100", "1000"})
+		public int width;
+		
+		private ListParent root;
+		private ListProps[] props;
+		private int counter = 0;
+		
+		@Setup(Level.Trial)
+		public void setup() {
+			props = new ListProps[] {new ListProps(items(width, "a"), 0), new ListProps(items(width, "b"), 0)};
+			BenchComponents.onEdt(()->{
+				root = new ListParent(ListMode.POSITIONAL, Dispatcher.PRECOMPILED);
+				PComponent.place(root, null, props[0]);
+			});
+		}
+	}
+	
+	static List<String> items(int count, String prefix) {
+		List<String> items = new ArrayList<>(count);
+		for(int i=0;i<count;i++) {
+			items.add(prefix + i);
+		}
+		return items;
+	}
+	
+	@Benchmark
+	public void deep(DeepTree tree) {
+		String value = "value" + (tree.counter++ & 1);
+		BenchComponents.onEdt(()->tree.root.setProps(value));
+	}
+	
+	@Benchmark
+	public void wide(WideTree tree) {
+		ListProps props = tree.props[tree.counter++ & 1];
+		BenchComponents.onEdt(()->tree.root.setProps(props));
+	}
+}
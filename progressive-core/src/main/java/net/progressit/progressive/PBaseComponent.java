@@ -0,0 +1,1438 @@
+package net.progressit.progressive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.google.common.eventbus.EventBus;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * <code>PBaseComponent</code> is the toolkit neutral core of <code>PComponent</code>, which defines a Reactive Visual Component.
+ * It holds the reconciler, the scheduling and the instrumentation once, for every UI toolkit. 
+ * Each toolkit module sub-classes it as its <code>PComponent</code>, fixing the node type and the host adapter.
+ * <p>PComponent is intended to be part of a hierarchy of reactive visual components which render the UI</p>
+ * <p>Each PComponent maps to a single UI node, which could be either a simple component or a container</p>
+ * <p>PComponent also holds plans for child PComponents.</p>
+ * <p>A component is defined by the props it takes as input from the parent (or outside in the case of Root component), and the data which is its state.</p>
+ * <p>The component provides data impact functions which define the impact of data/state changes.</p>
+ * <p>The component takes props from the parent and decides how the props merge into the data/state.</p>
+ * <p>The merged data is then applied to itself via the framework.</p>
+ * 
+ * 
+ * 
+ * @author theo
+ *
+ * @param <N> UI node type of the toolkit
+ * @param <T>
+ */
+public abstract class PBaseComponent<N,T,U> {
+	/**
+	 * The static <code>place</code> method which allows "outside" to place the <em>root</em> PComponent.
+	 * 
+	 * @param <V>
+	 * @param newComponent
+	 * @param listener
+	 * @param props
+	 */
+	public static <N,V> void place(PBaseComponent<N,?,V> newComponent, PEventListener listener, V props){
+		PTrace.trace(newComponent, "Placing component");
+		newComponent.ensureUiThread();
+		
+		N uiComponent = newComponent.getUiComponent();
+		//uiComponent.setBorder(BorderFactory.createLineBorder(Color.red));
+		
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginPlace():null;
+		newComponent.getLifecycleHandler().prePlacement();
+		newComponent.getPlacers().placer.accept(uiComponent);
+		newComponent.placed();
+		newComponent.setListener(listener);
+		newComponent.getLifecycleHandler().postPlacement();
+		if(flightEvent!=null) PFlightEvents.commit(flightEvent, newComponent, newComponent.renderedChildComponents.size());
+		
+		newComponent.setProps(props);
+	}
+	
+	/**
+	 * The static <code>remove</code> method which allows "outside" to place the <em>root</em> PComponent.
+	 * 
+	 * @param <V>
+	 * @param newComponent
+	 */
+	public static <N,V> void remove(PBaseComponent<N,?,V> oldComponent){
+		PTrace.trace(oldComponent, "Removing component");
+		oldComponent.ensureUiThread();
+		
+		N uiComponent = oldComponent.getUiComponent();
+		//uiComponent.setBorder(BorderFactory.createLineBorder(Color.red));
+		
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginRemove():null;
+		oldComponent.getLifecycleHandler().preRemove();
+		oldComponent.getPlacers().remover.accept(uiComponent);
+		oldComponent.removed();
+		oldComponent.clearListener();  
+		oldComponent.getLifecycleHandler().postRemove();
+		if(flightEvent!=null) PFlightEvents.commit(flightEvent, oldComponent, oldComponent.renderedChildComponents.size());
+	}
+	
+	/**
+	 * Return a (sub)set of the data which impacts the self render.
+	 * This is used to determine if the self-render has to be triggered again.
+	 * <p>Either this or <code>partitionForSelf</code> has to be overridden.</p>
+	 * 
+	 * @param data
+	 * @return
+	 */
+	protected Set<Object> partitionDataForSelf(T data){
+		throw new PComponentException(getClass().getName() + " should override partitionForSelf or partitionDataForSelf");
+	}
+	
+	/**
+	 * Return a (sub)set of the data which impacts the children render.
+	 * This is used to determine if the children-render has to be triggered again.
+	 * <p>Either this or <code>partitionForChildren</code> has to be overridden.</p>
+	 * 
+	 * @param data
+	 * @return
+	 */	
+	protected Set<Object> partitionDataForChildren(T data){
+		throw new PComponentException(getClass().getName() + " should override partitionForChildren or partitionDataForChildren");
+	}
+	
+	/**
+	 * Return the slices of the data which impact the self render, as a typed <code>PPartition</code>.
+	 * By default, wraps the set returned by <code>partitionDataForSelf</code>.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	protected PPartition partitionForSelf(T data) {
+		return PPartition.ofSet(partitionDataForSelf(data));
+	}
+	
+	/**
+	 * Return the slices of the data which impact the children render, as a typed <code>PPartition</code>.
+	 * By default, wraps the set returned by <code>partitionDataForChildren</code>.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	protected PPartition partitionForChildren(T data) {
+		return PPartition.ofSet(partitionDataForChildren(data));
+	}
+	
+	/**
+	 * An executor to compute the children plan on, away from the UI thread. Null (the default) computes it on the UI thread.
+	 * <p>With an executor, <code>renderChildrenPlan</code> runs on a worker thread, and only the diff of the resulting plan is applied on the UI thread.
+	 * So, it must derive the plan only from the data passed in: no UI access and no framework calls (like <code>getData</code>),
+	 * and any child PComponents it creates must be safe to construct off the UI thread (or be created upfront and just referenced).
+	 * If newer data arrives while a plan is being computed, the older plan is discarded when it completes. If computing the plan fails, the next <code>setData</code> plans again, even with the same data.</p>
+	 * 
+	 * @return
+	 */
+	protected Executor getChildrenPlanExecutor() {
+		return null;
+	}
+	
+	/**
+	 * How changes in data and partitions are detected. Override to return <code>IDENTITY_HASH</code> for large immutable data trees.
+	 * 
+	 * @return
+	 */
+	protected PChangeDetection getChangeDetection() {
+		return PChangeDetection.EQUALS;
+	}
+	
+	/**
+	 * Declares a memoized value derived from the data, to be kept in a field and read with <code>get(data)</code> in the render methods.
+	 * It is recomputed only when the given input slices change. See <code>PComputed</code>.
+	 * <pre>
+	 * private final PComputed&lt;ListData, List&lt;Row&gt;&gt; visibleRows = computed((d)-&gt;PPartition.of(d.getRows(), d.getFilter()), (d)-&gt;filter(d.getRows(), d.getFilter()));
+	 * </pre>
+	 * 
+	 * @param inputs the slices of the data which the value depends on
+	 * @param compute derives the value from the data
+	 * @return
+	 */
+	protected final <R> PComputed<T,R> computed(Function<T, PPartition> inputs, Function<T, R> compute) {
+		return new PComputed<>(this, inputs, compute);
+	}
+	
+	/**
+	 * Subscribes to a slice of the <code>PStore</code> of the global bus. See <code>select(PStore, Function, Consumer)</code>.
+	 */
+	protected final <S,V> PStore.Subscription<S,V> select(Function<S,V> selector, Consumer<V> onChange) {
+		return select(PStore.<S>forBus(globalBus), selector, onChange);
+	}
+	
+	/**
+	 * Subscribes to a slice of the store's state, typically once, from the constructor or <code>prePlacement</code>.
+	 * <code>onChange</code> is called (on the UI thread, batched per pulse) only when the selected slice changes, usually to set it into the data.
+	 * Merge the current slice (<code>get</code> on the subscription) into the data in <code>postProps</code>.
+	 * The subscription is active while this component is placed.
+	 * 
+	 * @param store
+	 * @param selector picks the slice from the state
+	 * @param onChange
+	 * @return
+	 */
+	protected final <S,V> PStore.Subscription<S,V> select(PStore<S> store, Function<S,V> selector, Consumer<V> onChange) {
+		ensureUiThread();
+		
+		PStore.Subscription<S,V> subscription = new PStore.Subscription<>(store, this, selector, onChange);
+		if(subscriptions==null) {
+			subscriptions = new ArrayList<>();
+		}
+		subscriptions.add(subscription);
+		if(subscriptionsMounted) subscription.mount();
+		return subscription;
+	}
+	
+	private void placed() {
+		isPlaced = true;
+		if(shownWatch==null && suspendWhenHidden()) {
+			shownWatch = getHost().watchShown(getUiComponent(), this::shownChanged);
+			if(removedWhileSuspended) { //Suspended again, so that being shown now catches up the data kept while hidden
+				removedWhileSuspended = false;
+				suspended = true;
+				SUSPENDED_COUNT.incrementAndGet();
+			}
+			shownChanged(shownWatch.isShown());
+		}
+		mountSubscriptions();
+		if(hasDeferred(renderedChildComponents)) scheduleDeferredPlacement(); //Placed again, with children still deferred
+	}
+	private void removed() {
+		isPlaced = false;
+		unmountSubscriptions();
+		if(shownWatch!=null) {
+			shownWatch.unwatch();
+			shownWatch = null;
+			if(suspended) { //Detaching hides it. Not counted while removed, as nothing would count it down.
+				suspended = false;
+				SUSPENDED_COUNT.decrementAndGet();
+				removedWhileSuspended = true;
+			}
+		}
+	}
+	
+	private void shownChanged(boolean shown) {
+		if(suspended!=shown) {
+			return;
+		}
+		suspended = !shown;
+		if(suspended) {
+			PTrace.trace(this, "Hidden, suspending renders");
+			SUSPENDED_COUNT.incrementAndGet();
+			return;
+		}
+		SUSPENDED_COUNT.decrementAndGet();
+		if(isSuspended()) {
+			return; //Still under a hidden component, whose catch-up covers this one
+		}
+		PTrace.trace(this, "Shown, catching up");
+		PHost.beginRender(getHost());
+		try {
+			catchUp();
+		}finally {
+			PHost.endRender(getHost());
+		}
+	}
+	
+	/**
+	 * Renders the data kept while hidden, top-down, so that each component which had changes renders once, with the latest props and data.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void catchUp() {
+		flushPendingData();
+		for(PBaseComponent child:new ArrayList<>(renderedChildComponents)) {
+			if(!child.suspended) child.catchUp();
+		}
+	}
+	
+	/**
+	 * Whether this component, or one above it, is hidden and suspended.
+	 */
+	private boolean isSuspended() {
+		if(SUSPENDED_COUNT.get()==0) {
+			return false;
+		}
+		for(PBaseComponent<?,?,?> component=this;component!=null;component=component.parent) {
+			if(component.suspended) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Registers the subscriptions of this component and its rendered children with their stores. 
+	 * Children come along (once any store is in use), since removing or recycling a component does not remove its own children.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void mountSubscriptions() {
+		if(subscriptionsMounted) {
+			return;
+		}
+		subscriptionsMounted = true;
+		if(subscriptions!=null) {
+			for(PStore.Subscription<?,?> subscription:subscriptions) {
+				subscription.mount();
+			}
+		}
+		if(!PStore.isInUse()) {
+			return;
+		}
+		for(PBaseComponent child:renderedChildComponents) {
+			child.mountSubscriptions();
+		}
+	}
+	@SuppressWarnings("rawtypes")
+	private void unmountSubscriptions() {
+		if(!subscriptionsMounted) {
+			return;
+		}
+		subscriptionsMounted = false;
+		if(subscriptions!=null) {
+			for(PStore.Subscription<?,?> subscription:subscriptions) {
+				subscription.unmount();
+			}
+		}
+		if(!PStore.isInUse()) {
+			return;
+		}
+		for(PBaseComponent child:renderedChildComponents) {
+			child.unmountSubscriptions();
+		}
+	}
+	
+	/**
+	 * Whether to suspend rendering while the UI component is hidden (like a panel in a card which is not selected, or a node which is not visible).
+	 * <p>A suspended component, and the components under it, only keep the latest props and data. When it is shown again, 
+	 * each component with data pending does one catch-up render. Off by default. Turn it on for the roots of subtrees which are often hidden,
+	 * like the panels of a dashboard.</p>
+	 * <p>A component which is hidden when placed is not rendered until it is shown, so it does not add to its parent's preferred size until then.</p>
+	 * 
+	 * @return
+	 */
+	protected boolean suspendWhenHidden() {
+		return false;
+	}
+	
+	/**
+	 * Get the static UI component, with nothing pre-rendered. 
+	 * The rendering of data into the component is handled later via <code>renderSelf</code>
+	 * 
+	 * @return
+	 */
+	protected abstract N getUiComponent();
+	
+	/**
+	 * The toolkit's host adapter. Implemented once by each toolkit's <code>PComponent</code>.
+	 * 
+	 * @return
+	 */
+	protected abstract PHostAdapter<N> getHost();
+	
+	/**
+	 * The rendering of data into the UI component provided via <code>getUiComponent</code>
+	 * 
+	 * @param data
+	 */
+	protected abstract void renderSelf(T data);
+	
+	/**
+	 * A render plan of what children <code>PComponent</code>s would be needed based on the current data.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	protected abstract PChildrenPlan renderChildrenPlan(T data);
+	
+	/**
+	 * A unified interface to handle all the lifecycle hooks.
+	 * Keeping it as a separate interface allows lifecycle adapter(s) which can assist with boilerplate code for the trivial case.
+	 * <p><b>Note:</b> Create a single instance of a lifecycle handler and return the same reference. 
+	 * This method call is not cached and can be called several times whenever needed.
+	 * If a new object is created each time, then at least the handler should be stateless.</p>   
+	 * 
+	 * @return
+	 */
+	protected abstract PLifecycleHandler getLifecycleHandler();
+	
+	/**
+	 * Event classes this component posts. Posting any other class fails.
+	 * <p>Called once per component class, and cached, so it has to return the same classes for every instance.</p>
+	 * 
+	 * @return
+	 */
+	protected abstract List<Class<?>> declareEmittedEvents();
+	
+	/**
+	 * Emitted event classes for which only the latest event matters, like the value of a text field.
+	 * <p>A conflated event is not delivered when posted. It is kept as the pending event of its class (replacing, and dropping, any earlier one)
+	 * and delivered in the next UI pulse. So a paste or a <code>setText</code> which fires several intermediate changes reaches the listener once.
+	 * A non-conflated event delivers the pending ones before itself, so the listener never sees events out of order.</p>
+	 * <p>Called once per component class, and cached, like <code>declareEmittedEvents</code>.</p>
+	 * 
+	 * @return
+	 */
+	protected List<Class<?>> declareConflatedEvents() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Creates the dispatcher on which this component emits its events. Override to plug in a different dispatcher, 
+	 * like <code>PGuavaEventDispatcher</code>. Called once, lazily, on the first use of the bus.
+	 * 
+	 * @return
+	 */
+	protected PEventDispatcher createEventDispatcher() {
+		return new PPrecompiledEventDispatcher();
+	}
+	
+	/**
+	 * The bus of this component on which this component emits all events defined by this component.
+	 * <p>Usually the parent PComponent listens to this bus, by providing a PEventListener, which the method signatures deciding how the events are delivered.
+	 */
+	private PEventDispatcher bus = null;
+	
+	/**
+	 * Not final, as a recycled component is switched to the placers of its new parent.
+	 */
+	@Getter(value = AccessLevel.PROTECTED)
+	private PBasePlacers<N> placers;
+	
+	@Getter(value = AccessLevel.PROTECTED)
+	private final EventBus globalBus;
+	
+	/**
+	 * The listener which is bound to the bus, usually provided by the parent PComponnet.
+	 * This reference could be useful at least when this component is re-used for a different purpose.
+	 */
+	private PEventListener listener = null;
+	
+	/**
+	 * Data is stored here after it is rendered. So, getData only works after rendered.
+	 */
+	private T renderedData = null;
+	
+	/**
+	 * Props are stored here as soon as received. However, the pre hook is called before this variable is updated (so old props if any could be accessed)
+	 */
+	private U props = null;
+	
+	/**
+	 * The self part of the data is saved for change detection.
+	 */
+	private PPartition renderedSelfData = null;
+	
+	/**
+	 * The child part of the data is saved for change detection.
+	 */
+	private PPartition renderedChildrenData = null;
+	/**
+	 * Whether the latest async children plan failed. Its data was not rendered, so the same data has to plan again.
+	 */
+	private boolean childrenPlanFailed = false;
+	
+	/**
+	 * Currently rendered children plan is kept, so that once the new plan is obtained, it can be diffed.
+	 */
+	private PChildrenPlan renderedPlan = new PChildrenPlan();
+	
+	/**
+	 * Actual rendered PComponents are kept, with the hope of reusing some of them if the types are the same. 
+	 */
+	@SuppressWarnings("rawtypes")
+	private final List<PBaseComponent> renderedChildComponents = new ArrayList<>();
+	
+	/**
+	 * Optional scheduler which coalesces <code>setData</code> calls into a single render per UI pulse. Null means render synchronously.
+	 * Set it on the root before placing it. Children placed by the framework inherit it from their parent.
+	 */
+	private PRenderScheduler renderScheduler = null;
+	
+	/**
+	 * Depth of this component in the placed tree (root is 0). The scheduler uses it to render parents before children.
+	 */
+	private int depth = 0;
+	
+	/**
+	 * The latest data set while a scheduled render is pending.
+	 */
+	private T pendingData = null;
+	private boolean dirty = false;
+	/**
+	 * Whether this component is queued in the render scheduler. Not the same as <code>dirty</code>: data kept while hidden is dirty, but left to the catch-up render.
+	 */
+	private boolean renderScheduled = false;
+	
+	/**
+	 * Incremented for each children render, so that plans computed off the UI thread for older data can be discarded.
+	 */
+	private long childrenRenderGeneration = 0;
+	
+	/**
+	 * The component which placed this one as a child (null for a root). Gives the tree path for metrics.
+	 */
+	private PBaseComponent<?,?,?> parent = null;
+	
+	/**
+	 * Created on first use while metrics are on.
+	 */
+	private PMetrics.Recorder metricsRecorder = null;
+	
+	/**
+	 * True while props are being set (and merged into data in the props hooks). Lets render attribution tell props from the component's own data changes.
+	 */
+	private boolean settingProps = false;
+	private PRenderCause dataCause = PRenderCause.SELF;
+	
+	/**
+	 * Store subscriptions made by this component (null if none), and whether they are registered with their stores (while placed).
+	 */
+	private List<PStore.Subscription<?,?>> subscriptions = null;
+	private boolean subscriptionsMounted = false;
+	
+	/**
+	 * Conflated events waiting for the next pulse, by class (null when there are none), and the count of those replaced before delivery.
+	 */
+	private Map<Class<?>, Object> pendingConflatedEvents = null;
+	private long droppedEventCount = 0;
+	
+	/**
+	 * Declared event classes, by component class. Filled on the first post, as the declarations are instance methods.
+	 */
+	private static final ClassValue<DeclaredEvents> DECLARED_EVENTS = new ClassValue<DeclaredEvents>() {
+		@Override
+		protected DeclaredEvents computeValue(Class<?> type) {
+			return new DeclaredEvents();
+		}
+	};
+	private static final class DeclaredEvents {
+		private volatile Set<Class<?>> conflated;
+		private volatile Set<Class<?>> emitted; //Written last, so that a non-null value means both are set
+	}
+	
+	/**
+	 * The plan of this child while it is deferred: reserved by the parent, but not placed yet. See <code>PChildPlan.deferred</code>.
+	 */
+	private PChildPlan deferredPlan = null;
+	/**
+	 * Whether this component is placed (as a root, or as a child by its parent).
+	 */
+	private boolean isPlaced = false;
+	/**
+	 * The watch on its UI component being shown, while placed (see <code>suspendWhenHidden</code>), and whether it is hidden now.
+	 */
+	private PHostAdapter.ShownWatch shownWatch = null;
+	private boolean suspended = false;
+	/**
+	 * Whether it was suspended when removed. If placed again, it catches up once shown.
+	 */
+	private boolean removedWhileSuspended = false;
+	/**
+	 * Number of suspended components. While none are, <code>setData</code> does not look up the tree for one.
+	 */
+	private static final AtomicInteger SUSPENDED_COUNT = new AtomicInteger();
+	/**
+	 * Whether an idle task to place the next deferred child is pending.
+	 */
+	private boolean deferredPlacementScheduled = false;
+	
+	/**
+	 * Made by the framework from a recyclable child plan, so it can go to the <code>PRecyclePool</code> when removed.
+	 */
+	private boolean recyclable = false;
+	
+	/**
+	 * Taken from the <code>PRecyclePool</code>, and not placed since. Its <code>prePlacement</code> has already run.
+	 */
+	private boolean recycled = false;
+	
+	public PBaseComponent(PBasePlacers<N> placers, EventBus globalBus) {
+		PTrace.trace(this, "Initializing");
+		this.placers = placers;
+		this.globalBus = globalBus;
+	}
+	
+	public void setProps(U props) {
+		PTrace.trace(this, "Setting props ::", props);
+		ensureUiThread();
+		
+		boolean wasSettingProps = settingProps;
+		settingProps = true;
+		try {
+			this.getLifecycleHandler().preProps();
+			this.props = props;
+			this.getLifecycleHandler().postProps();
+		}finally {
+			settingProps = wasSettingProps;
+		}
+	}
+	protected U getProps() {
+		PTrace.trace(this, "Getting props");
+		ensureUiThread();
+		
+		return props;
+	}
+	/**
+	 * Opt in to coalesced rendering for this component (and the children it places).
+	 * Has to be called before the component is placed.
+	 * 
+	 * @param renderScheduler the scheduler, or null to render synchronously
+	 */
+	public void setRenderScheduler(PRenderScheduler renderScheduler) {
+		ensureUiThread();
+		
+		this.renderScheduler = renderScheduler;
+	}
+	int getDepth() {
+		return depth;
+	}
+	/**
+	 * Returns the latest data, including data which is set but still waiting for a scheduled render.
+	 */
+	public T getData() {
+		PTrace.trace(this, "Getting data");
+		ensureUiThread();
+		
+		return dirty?pendingData:renderedData;
+	}
+	/**
+	 * Feel free to set data always. This component will check and re-render only if necessary.
+	 * With a render scheduler, the data is only recorded here and rendered in the next flush.
+	 * @param inData
+	 */
+	protected void setData(T inData) {
+		PTrace.trace(this, "Setting data ::", inData);
+		ensureUiThread();
+		dataCause = settingProps?PRenderCause.PROPS:PRenderCause.SELF;
+		
+		if(isSuspended()) {
+			PTrace.trace(this, "Hidden, keeping the data for the catch-up render");
+			pendingData = inData;
+			dirty = true; //Not marked in the scheduler. The catch-up render picks it up.
+			return;
+		}
+		if(renderScheduler!=null) {
+			pendingData = inData;
+			dirty = true;
+			if(!renderScheduled) { //Also when dirty already, with data kept while it was under a hidden component which it has left since
+				renderScheduled = true;
+				renderScheduler.markDirty(this);
+			}
+			return;
+		}
+		pendingData = null; //Any data kept while hidden is superseded
+		dirty = false;
+		renderData(inData);
+	}
+	
+	/**
+	 * Called by the render scheduler during a flush.
+	 */
+	void flushScheduledData() {
+		renderScheduled = false;
+		flushPendingData();
+	}
+	
+	/**
+	 * Called by the render scheduler during a flush, and by the catch-up render. Data stays pending while hidden.
+	 */
+	void flushPendingData() {
+		if(!dirty || isSuspended()) {
+			return;
+		}
+		T inData = pendingData;
+		pendingData = null;
+		dirty = false;
+		renderData(inData);
+	}
+	
+	private void renderData(T inData) {
+		long started = PMetrics.start();
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginSetData():null;
+		PHost.beginRender(getHost());
+		boolean changed;
+		try {
+			changed = renderChangedData(inData);
+		}finally {
+			PHost.endRender(getHost());
+		}
+		if(started!=0) metrics().setData(started, !changed);
+		if(flightEvent!=null) PFlightEvents.commitSetData(flightEvent, this, renderedChildComponents.size(), !changed);
+	}
+	
+	/**
+	 * @return false if nothing had changed
+	 */
+	private boolean renderChangedData(T inData) {
+		PChangeDetection changeDetection = getChangeDetection();
+		if(!childrenPlanFailed && (inData==renderedData || (changeDetection==PChangeDetection.EQUALS && inData!=null && inData.equals(renderedData)))) {
+			PTrace.trace(this, "No change in data");
+			return false;
+		}
+		//Some change is there
+		PPartition selfData = partitionForSelf(inData);
+		PPartition childrenData = partitionForChildren(inData);
+		boolean selfChanged = !selfData.sameAs(renderedSelfData, changeDetection);
+		boolean childrenChanged = !childrenData.sameAs(renderedChildrenData, changeDetection);
+		if(PRenderAttribution.isEnabled() && (selfChanged || childrenChanged)) {
+			PRenderAttribution.record(this, dataCause, renderedSelfData, selfChanged?selfData:null, renderedChildrenData, childrenChanged?childrenData:null);
+		}
+		
+		if(selfChanged) {
+			PTrace.trace(this, "Self data has changed.. rendering ::", selfData, renderedSelfData);
+			long started = PMetrics.start();
+			Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginRenderSelf():null;
+			renderSelf(inData);
+			if(started!=0) metrics().renderSelf(started);
+			if(flightEvent!=null) PFlightEvents.commit(flightEvent, this, renderedChildComponents.size());
+			if(!PHost.isHeadless()) getHost().selfRendered(getUiComponent());
+		}
+		renderedSelfData = selfData; //Also when the same, so that the next comparison finds the slices shared with this data, and reuses their hashes
+		renderedData = inData; //Set before going to children.
+		if(childrenChanged) {
+			PTrace.trace(this, "Children data has changed.. rendering");
+			long generation = ++childrenRenderGeneration;
+			Executor childrenPlanExecutor = getChildrenPlanExecutor();
+			renderedChildrenData = childrenData; //Data has been (or is being) processed into plan
+			childrenPlanFailed = false;
+			if(childrenPlanExecutor!=null) {
+				renderChildrenPlanAsync(inData, generation, childrenPlanExecutor);
+				return true;
+			}
+			long started = PMetrics.start();
+			Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginChildrenPlan():null;
+			PChildrenPlan childrenPlan = renderChildrenPlan(inData);
+			if(started!=0) metrics().renderChildrenPlan(started);
+			if(flightEvent!=null) PFlightEvents.commit(flightEvent, this, childrenPlan.getChildrenPlan().size());
+			childrenPlan.freeze();
+			applyChildrenPlan(childrenPlan);
+		}else {
+			renderedChildrenData = childrenData; //Same, as for the self data
+		}
+		return true;
+	}
+	
+	private void renderChildrenPlanAsync(T inData, long generation, Executor childrenPlanExecutor) {
+		Executor uiExecutor = PHost.uiExecutor(getHost());
+		PMetrics.Recorder recorder = PMetrics.isEnabled()?metrics():null; //Looked up here, as it walks up the tree
+		childrenPlanExecutor.execute(()->{
+			PChildrenPlan childrenPlan;
+			try {
+				long started = recorder==null?0:PMetrics.start();
+				Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginChildrenPlan():null;
+				childrenPlan = renderChildrenPlan(inData);
+				if(started!=0) recorder.renderChildrenPlan(started);
+				if(flightEvent!=null) PFlightEvents.commit(flightEvent, this, childrenPlan.getChildrenPlan().size());
+				childrenPlan.freeze();
+			}catch(RuntimeException e) {
+				uiExecutor.execute(()->{
+					if(generation==childrenRenderGeneration) {
+						renderedChildrenData = null; //Not rendered, so the same data plans again on the next setData
+						childrenPlanFailed = true;
+					}
+					throw new PComponentException("Children plan computation failed for " + getClass().getName(), e);
+				});
+				return;
+			}
+			uiExecutor.execute(()->{
+				if(generation!=childrenRenderGeneration) {
+					PTrace.trace(this, "Discarding stale children plan");
+					return;
+				}
+				PHost.beginRender(getHost());
+				try {
+					applyChildrenPlan(childrenPlan);
+				}finally {
+					PHost.endRender(getHost());
+				}
+			});
+		});
+	}
+	
+	private void applyChildrenPlan(PChildrenPlan childrenPlan) {
+		long started = PMetrics.start();
+		diffAndRenderPlan(childrenPlan);
+		if(started!=0) metrics().diff(started);
+		if(!PHost.isHeadless()) getHost().childrenChanged(getUiComponent());
+		renderedPlan = childrenPlan; //Plan has been rendered
+		if(hasDeferred(renderedChildComponents)) scheduleDeferredPlacement();
+	}
+	
+	/**
+	 * Just to make sure that next time we don't register the same listener again during setListener.
+	 */
+	public void clearListener() {
+		PTrace.trace(this, "Clearing listener");
+		ensureUiThread();
+		
+		if(listener!=null) {
+			flushConflatedEvents(); //Pending events belong to this listener, not to the next one set
+			getBus().unregister(listener);
+			listener = null;
+		}
+	}
+	/**
+	 * Set listener has to be called each time when a component is placed (used), because, each time
+	 * the same component could be used for a completely different purpose.
+	 * @param listener
+	 */
+	public void setListener(PEventListener listener) {
+		PTrace.trace(this, "Setting listener");
+		ensureUiThread();
+		
+		this.listener = listener;
+		if(listener!=null) {
+			getBus().register(listener);
+		}
+	}
+	
+	protected void post(Object event) {
+		PTrace.trace(this, "Posting event to bus", event);
+		ensureUiThread();
+		DeclaredEvents declared = declaredEvents();
+		if(!declared.emitted.contains(event.getClass())) {
+			throw new RuntimeException("Undeclared event class: " + event.getClass());
+		}
+		
+		if(declared.conflated.contains(event.getClass())) {
+			conflate(event);
+			return;
+		}
+		if(pendingConflatedEvents!=null) {
+			flushConflatedEvents();
+		}
+		dispatch(event);
+	}
+	
+	private DeclaredEvents declaredEvents() {
+		DeclaredEvents declared = DECLARED_EVENTS.get(getClass());
+		if(declared.emitted==null) { //First post of this class. Racing instances compute the same sets.
+			declared.conflated = new HashSet<>(declareConflatedEvents());
+			declared.emitted = new HashSet<>(declareEmittedEvents());
+		}
+		return declared;
+	}
+	
+	/**
+	 * Number of conflated events which were replaced by a later event of the same class before being delivered.
+	 */
+	public long getDroppedEventCount() {
+		return droppedEventCount;
+	}
+	
+	private void conflate(Object event) {
+		if(pendingConflatedEvents==null) {
+			pendingConflatedEvents = new LinkedHashMap<>();
+			PHost.uiExecutor(getHost()).execute(this::flushConflatedEvents);
+		}
+		if(pendingConflatedEvents.put(event.getClass(), event)!=null) {
+			PTrace.trace(this, "Dropped the earlier pending event of the same class");
+			droppedEventCount++;
+			if(PMetrics.isEnabled()) metrics().eventDropped();
+		}
+	}
+	
+	/**
+	 * Delivers the pending conflated events, in the order their classes were first posted. A no-op if they have already been delivered.
+	 */
+	private void flushConflatedEvents() {
+		Map<Class<?>, Object> events = pendingConflatedEvents;
+		if(events==null) {
+			return;
+		}
+		pendingConflatedEvents = null;
+		for(Object event:events.values()) {
+			dispatch(event);
+		}
+	}
+	
+	private void dispatch(Object event) {
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginPost():null;
+		getBus().post(event);
+		if(flightEvent!=null) PFlightEvents.commitPost(flightEvent, this, renderedChildComponents.size(), event.getClass());
+	}
+	
+	private PEventDispatcher getBus() {
+		if(bus==null) {
+			bus = createEventDispatcher();
+		}
+		return bus;
+	}
+	
+	private void diffAndRenderPlan(PChildrenPlan childrenPlan) {
+		PTrace.trace(this, "Diffing and rendering children plan :: children size", childrenPlan.getChildrenPlan().size());
+		ensureUiThread();
+		
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginReconcile():null;
+		int oldChildCount = renderedChildComponents.size();
+		boolean keyed = !renderedPlan.getChildrenPlan().isEmpty() && !childrenPlan.getChildrenPlan().isEmpty() && isKeyed(renderedPlan) && isKeyed(childrenPlan);
+		if(keyed) {
+			diffAndRenderByKey(childrenPlan);
+		}else {
+			diffAndRenderByPosition(childrenPlan);
+		}
+		if(flightEvent!=null) PFlightEvents.commitReconcile(flightEvent, this, renderedChildComponents.size(), oldChildCount, keyed);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void diffAndRenderByPosition(PChildrenPlan childrenPlan) {
+		int oldSize = renderedPlan.getChildrenPlan().size();
+		int newSize = childrenPlan.getChildrenPlan().size();
+		int commonSize = Math.min(oldSize, newSize);
+		int matchedCount = 0;
+		for(int i=0;i<commonSize;i++) {
+			Class<?> oldType = renderedPlan.getChildrenPlan().get(i).componentClass();
+			Class<?> newType = childrenPlan.getChildrenPlan().get(i).componentClass();
+			if(oldType.equals(newType)) { //The user implemented sub class should not be parameterised.
+				matchedCount++;
+			}else {
+				break; //Only consecutive matches are used currently.
+			}
+		}
+		if(matchedCount>0) {
+			PTrace.trace(this, "Re-using components :: first #n components matched", matchedCount);
+			for(int i=0;i<matchedCount;i++) {
+				PTrace.trace(this, "#i", (i + 1));
+				//Swap out info, so that same component is re-used, possibly for different data/listener
+				PChildPlan newPlan = childrenPlan.getChildrenPlan().get(i);
+				PBaseComponent<N, Object, Object> renderedComponent = renderedChildComponents.get(i);
+				rebindChild(renderedComponent, newPlan);
+			}
+		} 
+		if(oldSize > matchedCount) {
+			PTrace.trace(this, "Removing #n excess components", (oldSize - matchedCount));
+			//Remove old comps, last first
+			List<PBaseComponent> oldComponents = new ArrayList<>(renderedChildComponents.subList(matchedCount, oldSize));
+			Collections.reverse(oldComponents);
+			removeChildren(oldComponents);
+			renderedChildComponents.subList(matchedCount, oldSize).clear();
+		}
+		if(newSize>matchedCount) {
+			PTrace.trace(this, "Adding #n new components", (newSize - matchedCount));
+			//Add new comps
+			List<PChildPlan> newPlans = childrenPlan.getChildrenPlan().subList(matchedCount, newSize);
+			List<PBaseComponent> newComponents = new ArrayList<>(newPlans.size());
+			for(PChildPlan newPlan:newPlans) {
+				newComponents.add(newChild(newPlan));
+			}
+			renderedChildComponents.addAll(newComponents);
+			placeChildren(newComponents, newPlans, null);
+			for(int k=0;k<newComponents.size();k++) {
+				if(newComponents.get(k).deferredPlan==null) newComponents.get(k).setProps(newPlans.get(k).getProps());
+			}
+		}
+	}
+	
+	/**
+	 * Keyed reconciliation. Old and new children are matched by <code>PChildPlan.key</code> (and class), so that
+	 * an insert or a re-order does not remount everything after the first change.
+	 * <p>Only unmatched old children are removed, and only unmatched new children are placed. Of the matched ones, 
+	 * the longest run which is already in the right relative order stays untouched, and only the rest are moved.</p>
+	 * 
+	 * @param childrenPlan
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void diffAndRenderByKey(PChildrenPlan childrenPlan) {
+		List<PChildPlan> oldPlans = renderedPlan.getChildrenPlan();
+		List<PChildPlan> newPlans = childrenPlan.getChildrenPlan();
+		int oldSize = oldPlans.size();
+		int newSize = newPlans.size();
+		
+		Map<Object, Integer> oldIndexByKey = new HashMap<>(oldSize * 2);
+		for(int i=0;i<oldSize;i++) {
+			oldIndexByKey.put(oldPlans.get(i).getKey(), i);
+		}
+		
+		//Match by key. sources[j] is the old index re-used for new index j, or -1 if a new component is needed.
+		int[] sources = new int[newSize];
+		boolean[] oldReused = new boolean[oldSize];
+		Set<Object> newKeys = new HashSet<>(newSize * 2);
+		for(int j=0;j<newSize;j++) {
+			PChildPlan newPlan = newPlans.get(j);
+			if(!newKeys.add(newPlan.getKey())) {
+				throw new PComponentException("Duplicate child key in children plan: " + newPlan.getKey());
+			}
+			Integer oldIndex = oldIndexByKey.get(newPlan.getKey());
+			if(oldIndex!=null && oldPlans.get(oldIndex).componentClass().equals(newPlan.componentClass())) {
+				sources[j] = oldIndex;
+				oldReused[oldIndex] = true;
+			}else {
+				sources[j] = -1;
+			}
+		}
+		
+		//Remove the old ones which are not re-used
+		List<PBaseComponent> keptComponents = new ArrayList<>(oldSize);
+		List<PBaseComponent> removedComponents = new ArrayList<>();
+		for(int i=0;i<oldSize;i++) {
+			if(oldReused[i]) {
+				keptComponents.add(renderedChildComponents.get(i));
+			}else {
+				removedComponents.add(renderedChildComponents.get(i));
+			}
+		}
+		removeChildren(removedComponents);
+		
+		List<PBaseComponent> newComponents = new ArrayList<>(newSize);
+		boolean canInsert = true;
+		for(int j=0;j<newSize;j++) {
+			PBaseComponent component = sources[j]<0?newChild(newPlans.get(j)):renderedChildComponents.get(sources[j]);
+			newComponents.add(component);
+			canInsert &= component.getPlacers().inserter!=null;
+		}
+		//New plan per new index, or null where a rendered component is moved
+		List<PChildPlan> placedPlans = new ArrayList<>(newSize);
+		for(int j=0;j<newSize;j++) {
+			placedPlans.add(sources[j]<0?newPlans.get(j):null);
+		}
+		
+		int placedCount = 0;
+		int movedCount = 0;
+		if(canInsert) {
+			//Walk backwards over the runs which are not stable, so that the anchor (the next sibling with the same placers) is always at its final position already.
+			boolean[] stable = stableByLongestIncreasingSubsequence(sources);
+			Map<PBasePlacers, N> anchors = new IdentityHashMap<>();
+			int j = newSize - 1;
+			while(j>=0) {
+				if(stable[j]) {
+					setAnchor(anchors, newComponents.get(j));
+					j--;
+					continue;
+				}
+				int start = j;
+				while(start>0 && !stable[start-1]) {
+					start--;
+				}
+				List<PBaseComponent> moved = new ArrayList<>();
+				for(int k=start;k<=j;k++) {
+					if(sources[k]<0) {
+						placedCount++;
+					}else {
+						moved.add(newComponents.get(k));
+					}
+				}
+				detachChildren(moved);
+				movedCount += moved.size();
+				//Each run of the same placers goes before its own anchor, last run first
+				for(int end=j + 1, runStart;end>start;end=runStart) {
+					PBasePlacers placers = newComponents.get(end - 1).getPlacers();
+					runStart = end - 1;
+					while(runStart>start && newComponents.get(runStart - 1).getPlacers()==placers) {
+						runStart--;
+					}
+					placeChildren(newComponents.subList(runStart, end), placedPlans.subList(runStart, end), anchors.get(placers));
+					for(int k=end - 1;k>=runStart;k--) {
+						setAnchor(anchors, newComponents.get(k));
+					}
+				}
+				j = start - 1;
+			}
+		}else {
+			//Placers can only append. So, keep the common leading run and re-append everything after it.
+			int firstDisplaced = 0;
+			while(firstDisplaced<keptComponents.size() && firstDisplaced<newSize && keptComponents.get(firstDisplaced)==newComponents.get(firstDisplaced)) {
+				firstDisplaced++;
+			}
+			detachChildren(keptComponents.subList(firstDisplaced, keptComponents.size()));
+			for(int j=firstDisplaced;j<newSize;j++) {
+				if(sources[j]<0) {
+					placedCount++;
+				}else {
+					movedCount++;
+				}
+			}
+			placeChildren(newComponents.subList(firstDisplaced, newSize), placedPlans.subList(firstDisplaced, newSize), null);
+		}
+		if(PTrace.isEnabled(getClass())) {
+			PTrace.trace(this, "Keyed children :: removed " + (oldSize - keptComponents.size()) + " placed " + placedCount + " moved", movedCount);
+		}
+		
+		renderedChildComponents.clear();
+		renderedChildComponents.addAll(newComponents);
+		for(int j=0;j<newSize;j++) {
+			PChildPlan newPlan = newPlans.get(j);
+			if(sources[j]<0) {
+				if(newComponents.get(j).deferredPlan==null) newComponents.get(j).setProps(newPlan.getProps());
+			}else {
+				rebindChild(newComponents.get(j), newPlan);
+			}
+		}
+	}
+	
+	/**
+	 * Place the given children in order, before <code>before</code> if given, else appended.
+	 * Each run of consecutive children which share the same placers goes in one bulk placer call.
+	 * 
+	 * @param components the children
+	 * @param newPlans the plan of each new child, or null for a rendered child which is only being moved (and is detached already)
+	 * @param before
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void placeChildren(List<PBaseComponent> components, List<PChildPlan> newPlans, N before) {
+		if(hasDeferred(components)) {
+			List<PBaseComponent> placedComponents = new ArrayList<>(components.size());
+			List<PChildPlan> placedPlans = new ArrayList<>(components.size());
+			for(int k=0;k<components.size();k++) {
+				if(components.get(k).deferredPlan==null) {
+					placedComponents.add(components.get(k));
+					placedPlans.add(newPlans.get(k));
+				}
+			}
+			components = placedComponents;
+			newPlans = placedPlans;
+		}
+		int size = components.size();
+		Object[] flightEvents = null;
+		for(int start=0, end;start<size;start=end) {
+			PBasePlacers placers = components.get(start).getPlacers();
+			end = start + 1;
+			while(end<size && components.get(end).getPlacers()==placers) {
+				end++;
+			}
+			List<N> uiComponents = new ArrayList<>(end - start);
+			for(int k=start;k<end;k++) {
+				PBaseComponent component = components.get(k);
+				if(newPlans.get(k)!=null) {
+					Object flightEvent = beforePlacement(component);
+					if(flightEvent!=null) {
+						if(flightEvents==null) flightEvents = new Object[size];
+						flightEvents[k] = flightEvent;
+					}
+				}
+				uiComponents.add((N) component.getUiComponent());
+			}
+			placers.placeAll(uiComponents, before);
+			for(int k=start;k<end;k++) {
+				PChildPlan newPlan = newPlans.get(k);
+				if(newPlan!=null) {
+					afterPlacement(components.get(k), newPlan, flightEvents==null?null:flightEvents[k]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the flight event of the placement, if recording
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Object beforePlacement(PBaseComponent newComponent) {
+		newComponent.depth = depth + 1;
+		newComponent.renderScheduler = renderScheduler;
+		if(newComponent.parent!=this) {
+			newComponent.parent = this;
+			newComponent.metricsRecorder = null; //Path changed
+		}
+		if(PMetrics.isEnabled()) metrics().childPlaced();
+		
+		Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginPlace():null;
+		if(newComponent.recycled) {
+			newComponent.recycled = false;
+		}else {
+			newComponent.getLifecycleHandler().prePlacement();
+		}
+		return flightEvent;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private void afterPlacement(PBaseComponent newComponent, PChildPlan newPlan, Object flightEvent) {
+		newComponent.placed();
+		newComponent.setListener(newPlan.getListener().orElse(null));
+		newComponent.getLifecycleHandler().postPlacement();
+		if(flightEvent!=null) PFlightEvents.commit(flightEvent, newComponent, newComponent.renderedChildComponents.size());
+	}
+	
+	/**
+	 * Remove the given children (lifecycle and all). Each run of consecutive children which share the same placers goes in one bulk remover call.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void removeChildren(List<PBaseComponent> components) {
+		if(hasDeferred(components)) {
+			List<PBaseComponent> placedComponents = new ArrayList<>(components.size());
+			for(PBaseComponent component:components) {
+				if(component.deferredPlan==null) {
+					placedComponents.add(component);
+				}else {
+					component.deferredPlan = null; //Never placed. Not recycled either, as its prePlacement has not run.
+				}
+			}
+			components = placedComponents;
+		}
+		int size = components.size();
+		Object[] flightEvents = null;
+		for(int start=0, end;start<size;start=end) {
+			PBasePlacers placers = components.get(start).getPlacers();
+			end = start + 1;
+			while(end<size && components.get(end).getPlacers()==placers) {
+				end++;
+			}
+			List<N> uiComponents = new ArrayList<>(end - start);
+			for(int k=start;k<end;k++) {
+				PBaseComponent oldComponent = components.get(k);
+				Object flightEvent = PFlightRecorder.isEnabled()?PFlightEvents.beginRemove():null;
+				if(flightEvent!=null) {
+					if(flightEvents==null) flightEvents = new Object[size];
+					flightEvents[k] = flightEvent;
+				}
+				oldComponent.getLifecycleHandler().preRemove();
+				uiComponents.add((N) oldComponent.getUiComponent());
+			}
+			placers.removeAll(uiComponents);
+			for(int k=start;k<end;k++) {
+				afterRemoval(components.get(k), flightEvents==null?null:flightEvents[k]);
+			}
+		}
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private void afterRemoval(PBaseComponent oldComponent, Object flightEvent) {
+		oldComponent.removed();
+		oldComponent.clearListener();  
+		oldComponent.getLifecycleHandler().postRemove();
+		if(flightEvent!=null) PFlightEvents.commit(flightEvent, oldComponent, oldComponent.renderedChildComponents.size());
+		if(PMetrics.isEnabled()) metrics().childRemoved();
+		if(oldComponent.recyclable) {
+			PRecyclePool.park(oldComponent);
+		}
+	}
+	
+	/**
+	 * Take the UI components of rendered children out of the parent, to be placed again in a new position. No lifecycle hooks.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void detachChildren(List<PBaseComponent> components) {
+		if(hasDeferred(components)) {
+			components = new ArrayList<>(components);
+			components.removeIf((component)->component.deferredPlan!=null);
+		}
+		int size = components.size();
+		for(int start=0, end;start<size;start=end) {
+			PBasePlacers placers = components.get(start).getPlacers();
+			end = start + 1;
+			while(end<size && components.get(end).getPlacers()==placers) {
+				end++;
+			}
+			List<N> uiComponents = new ArrayList<>(end - start);
+			for(int k=start;k<end;k++) {
+				uiComponents.add((N) components.get(k).getUiComponent());
+			}
+			placers.removeAll(uiComponents);
+		}
+	}
+	
+	/**
+	 * The component for a child which is not re-used from the rendered children: the planned one, 
+	 * or for a recyclable plan, one from the pool (switched to the plan's placers) or else a new one from the factory.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static PBaseComponent newChild(PChildPlan newPlan) {
+		PBaseComponent component = newComponent(newPlan);
+		component.deferredPlan = newPlan.isDeferred()?newPlan:null;
+		return component;
+	}
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static PBaseComponent newComponent(PChildPlan newPlan) {
+		if(newPlan.getComponent()!=null) {
+			return newPlan.getComponent();
+		}
+		if(newPlan.getType()==null || newPlan.getPlacers()==null || newPlan.getFactory()==null) {
+			throw new PComponentException("Child plan needs a component, or a type, placers and factory to be recyclable");
+		}
+		PBaseComponent component = PRecyclePool.take(newPlan.getType());
+		if(component!=null) {
+			component.placers = newPlan.getPlacers();
+			component.recycled = true;
+			return component;
+		}
+		component = newPlan.getFactory().get();
+		if(component.getClass()!=newPlan.getType()) {
+			throw new PComponentException("Recyclable child factory made a " + component.getClass().getName() + " instead of a " + newPlan.getType().getName());
+		}
+		component.recyclable = true;
+		return component;
+	}
+	
+	/**
+	 * Swap out info, so that same component is re-used, possibly for different data/listener
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void rebindChild(PBaseComponent renderedComponent, PChildPlan newPlan) {
+		if(renderedComponent.deferredPlan!=null) {
+			if(newPlan.isDeferred()) {
+				renderedComponent.deferredPlan = newPlan; //Still waiting, now for the latest props and listener
+			}else {
+				placeDeferredChild(renderedComponent, newPlan);
+			}
+			if(PMetrics.isEnabled()) metrics().childReused();
+			return;
+		}
+		renderedComponent.clearListener();
+		renderedComponent.setListener( newPlan.getListener().orElse(null) );
+		renderedComponent.setProps(newPlan.getProps());
+		if(PMetrics.isEnabled()) metrics().childReused();
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private static boolean hasDeferred(List<PBaseComponent> components) {
+		for(PBaseComponent component:components) {
+			if(component.deferredPlan!=null) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Make the child the anchor for its placers, if it has been placed. A sibling in another container is never an anchor.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void setAnchor(Map<PBasePlacers, N> anchors, PBaseComponent component) {
+		if(component.deferredPlan==null) anchors.put(component.getPlacers(), (N) component.getUiComponent());
+	}
+	
+	/**
+	 * Place a deferred child now, in its planned position: before the next placed sibling (if it shares the placers, and they can insert), else appended.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void placeDeferredChild(PBaseComponent component, PChildPlan plan) {
+		PTrace.trace(this, "Placing deferred child ::", component.getClass().getName());
+		component.deferredPlan = null;
+		N before = null;
+		PBasePlacers placers = component.getPlacers();
+		if(placers.inserter!=null) {
+			for(int k=renderedChildComponents.indexOf(component) + 1;k<renderedChildComponents.size();k++) {
+				PBaseComponent sibling = renderedChildComponents.get(k);
+				if(sibling.deferredPlan==null && sibling.getPlacers()==placers) {
+					before = (N) sibling.getUiComponent();
+					break;
+				}
+			}
+		}
+		placeChildren(Collections.singletonList(component), Collections.singletonList(plan), before);
+		component.setProps(plan.getProps());
+		if(!PHost.isHeadless()) getHost().childrenChanged(getUiComponent());
+	}
+	
+	/**
+	 * Places the first deferred child when the UI is idle, and then schedules the next one, so that the UI stays responsive in between.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void scheduleDeferredPlacement() {
+		if(deferredPlacementScheduled) {
+			return;
+		}
+		deferredPlacementScheduled = true;
+		PHost.idleExecutor(getHost()).execute(()->{
+			deferredPlacementScheduled = false;
+			if(!isPlaced) {
+				return; //Removed in the meantime. Picked up again if it is placed again.
+			}
+			for(PBaseComponent child:renderedChildComponents) {
+				if(child.deferredPlan!=null) {
+					PHost.beginRender(getHost());
+					try {
+						placeDeferredChild(child, child.deferredPlan);
+					}finally {
+						PHost.endRender(getHost());
+					}
+					if(hasDeferred(renderedChildComponents)) scheduleDeferredPlacement();
+					return;
+				}
+			}
+		});
+	}
+	
+	private PMetrics.Recorder metrics() {
+		if(metricsRecorder==null) {
+			metricsRecorder = PMetrics.recorder(getClass(), treePath());
+		}
+		return metricsRecorder;
+	}
+	
+	/**
+	 * Class names from the root down to this component.
+	 */
+	String treePath() {
+		String label = PMetrics.label(getClass());
+		return parent==null?label:parent.treePath() + "/" + label;
+	}
+	
+	PBaseComponent<?,?,?> getRoot() {
+		PBaseComponent<?,?,?> root = this;
+		while(root.parent!=null) {
+			root = root.parent;
+		}
+		return root;
+	}
+	
+	private static boolean isKeyed(PChildrenPlan plan) {
+		for(PChildPlan childPlan:plan.getChildrenPlan()) {
+			if(childPlan.getKey()==null) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Marks the new indices which are part of the longest increasing run of old indices. 
+	 * Those children are already in the right relative order, and need not be moved.
+	 * 
+	 * @param sources old index per new index, or -1 for new children
+	 * @return stable flag per new index
+	 */
+	private static boolean[] stableByLongestIncreasingSubsequence(int[] sources) {
+		int n = sources.length;
+		int[] predecessors = new int[n];
+		int[] tails = new int[n];
+		int length = 0;
+		for(int j=0;j<n;j++) {
+			int source = sources[j];
+			if(source<0) {
+				continue;
+			}
+			int lo = 0;
+			int hi = length;
+			while(lo<hi) {
+				int mid = (lo + hi) >>> 1;
+				if(sources[tails[mid]]<source) {
+					lo = mid + 1;
+				}else {
+					hi = mid;
+				}
+			}
+			predecessors[j] = lo>0?tails[lo-1]:-1;
+			tails[lo] = j;
+			if(lo==length) {
+				length++;
+			}
+		}
+		boolean[] stable = new boolean[n];
+		for(int j=length>0?tails[length-1]:-1;j>=0;j=predecessors[j]) {
+			stable[j] = true;
+		}
+		return stable;
+	}
+	
+	private void ensureUiThread() {
+		if(!PHost.isUiThread(getHost())) {
+			throw new RuntimeException("All PComponent operations should be on " + getHost().getUiThreadName() + "!");
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package net.progressit.progressive;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import lombok.Data;
+
+/**
+ * Holds the UI placer and remover, usually provided by the parent to a PComponent, for any node type.
+ * Each toolkit module has a <code>PPlacers</code> sub-class, fixing the node type.
+ * PComponent just holds the reference to the placers, whereas the framework takes care of using them.
+ * <p>The optional <code>inserter</code> places a node before a given sibling (or at the end, if the sibling is null).
+ * It lets keyed children be moved into place instead of being re-appended.</p>
+ * <p>The optional bulk variants take a whole run of consecutive nodes in one call: <code>bulkPlacer</code> appends them (like <code>addAll</code>), 
+ * <code>bulkInserter</code> inserts them before a sibling (like <code>addAll</code> at the sibling's index), and <code>bulkRemover</code> removes them (like <code>removeAll</code>).
+ * The framework uses them whenever a contiguous range of children changes, so a toolkit can fire one change and one layout request for the range.
+ * Where a bulk variant is not given, the single node consumers are called for each node.</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <N> UI node type of the toolkit
+ */
+@Data
+public class PBasePlacers<N>{
+	final Consumer<N> placer;
+	final Consumer<N> remover;
+	final BiConsumer<N, N> inserter;
+	
+	final Consumer<List<N>> bulkPlacer;
+	final Consumer<List<N>> bulkRemover;
+	final BiConsumer<List<N>, N> bulkInserter;
+	
+	public PBasePlacers(Consumer<N> placer, Consumer<N> remover) {
+		this(placer, remover, null);
+	}
+	public PBasePlacers(Consumer<N> placer, Consumer<N> remover, BiConsumer<N, N> inserter) {
+		this(placer, remover, inserter, null, null, null);
+	}
+	public PBasePlacers(Consumer<N> placer, Consumer<N> remover, BiConsumer<N, N> inserter, 
+			Consumer<List<N>> bulkPlacer, Consumer<List<N>> bulkRemover, BiConsumer<List<N>, N> bulkInserter) {
+		this.placer = placer;
+		this.remover = remover;
+		this.inserter = inserter;
+		this.bulkPlacer = bulkPlacer;
+		this.bulkRemover = bulkRemover;
+		this.bulkInserter = bulkInserter;
+	}
+	
+	/**
+	 * Place the nodes in order, before <code>before</code> if given, else appended. One bulk call if possible.
+	 */
+	void placeAll(List<N> nodes, N before) {
+		if(before==null) {
+			if(bulkPlacer!=null && nodes.size()>1) {
+				bulkPlacer.accept(nodes);
+			}else {
+				for(N node:nodes) {
+					placer.accept(node);
+				}
+			}
+		}else {
+			if(bulkInserter!=null && nodes.size()>1) {
+				bulkInserter.accept(nodes, before);
+			}else {
+				for(N node:nodes) {
+					inserter.accept(node, before);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Remove the nodes. One bulk call if possible.
+	 */
+	void removeAll(List<N> nodes) {
+		if(bulkRemover!=null && nodes.size()>1) {
+			bulkRemover.accept(nodes);
+		}else {
+			for(N node:nodes) {
+				remover.accept(node);
+			}
+		}
+	}
+}
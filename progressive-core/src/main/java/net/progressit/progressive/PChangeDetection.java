@@ -0,0 +1,25 @@
+package net.progressit.progressive;
+
+/**
+ * How a PComponent decides whether its data (or a partition of it) has changed.
+ * 
+ * @author theodore.r
+ *
+ */
+public enum PChangeDetection {
+	/**
+	 * Deep <code>equals</code> on the whole data, and then on each partition. This is the default.
+	 */
+	EQUALS,
+	/**
+	 * Identity first, then cached hash codes, and <code>equals</code> only when the hashes match.
+	 * Slices which are shared between the old and the new data (like unchanged fields copied over by Lombok <code>toBuilder()</code>)
+	 * short-circuit immediately, without walking their content. The whole-data <code>equals</code> is skipped as well.
+	 * <p>Needs the data to be immutable, with <code>hashCode</code> consistent with <code>equals</code>.</p>
+	 * <p>Worth choosing when the new data is derived from the previous data, so that unchanged slices are the same objects, and a changed slice usually
+	 * has a different hash. A slice which is rebuilt equal but not identical (like data parsed afresh on every update) costs a <code>hashCode</code> 
+	 * and then an <code>equals</code> anyway, which is more than <code>EQUALS</code> alone, unless the slice caches its hash code (like <code>String</code>
+	 * and the persistent collections).</p>
+	 */
+	IDENTITY_HASH
+}
@@ -0,0 +1,59 @@
+package net.progressit.progressive;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A single intent of child component configuration, created by the parent PComponent as part of its rendering.
+ * <p>The optional <code>key</code> identifies the child across renders. When every child in both the old and the new plan 
+ * has a key, children are matched by key instead of by position, so inserting or re-ordering children does not remount them.
+ * Keys have to be unique within a plan.</p>
+ * <p>Instead of a <code>component</code>, a child can be planned as <code>recyclable</code>: just its class, the placers, and a factory (bound to the placers).
+ * The framework then only gets a component when it needs a new child, first from the <code>PRecyclePool</code>, else from the factory.
+ * Recyclable children go back to the pool when they are removed.</p>
+ * <p>A <code>deferred</code> child is reserved in the plan (it keeps its position, and it is re-used and removed like any other child), 
+ * but its <code>prePlacement</code>, placement and first render wait until a plan has it as not deferred (like when its tab is selected), 
+ * or until the UI is idle. So hidden content, like unselected tabs and collapsed panels, does not hold up the first paint.
+ * Once placed, a child stays placed. For a recyclable child, only the placement waits: the component is made (or taken from the pool) when it is planned.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@Data
+@Builder
+public class PChildPlan{
+	public final PBaseComponent<?,?,?> component;
+	public final Object props;
+	public final Optional<PEventListener> listener;
+	public final Object key;
+	public final boolean deferred;
+	
+	public final Class<?> type;
+	public final PBasePlacers<?> placers;
+	public final Supplier<? extends PBaseComponent<?,?,?>> factory;
+	
+	Class<?> componentClass() {
+		return component!=null?component.getClass():type;
+	}
+	
+	public static class PChildPlanBuilder{
+		/**
+		 * Plan a recyclable child, in place of <code>component</code>.
+		 * 
+		 * @param type exact class of the components the factory makes
+		 * @param placers placers for this parent, which a recycled component is switched to
+		 * @param factory makes a new component, when the pool has none
+		 * @return
+		 */
+		public <P extends PBasePlacers<?>, C extends PBaseComponent<?,?,?>> PChildPlanBuilder recyclable(Class<C> type, P placers, Function<P, C> factory) {
+			this.type = type;
+			this.placers = placers;
+			this.factory = ()->factory.apply(placers);
+			return this;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package net.progressit.progressive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A set of child component configurations, created by the parent PComponent as part of its rendering.
+ * <p>The framework freezes the plan once it receives it. From then on, it is immutable and can be handed across threads 
+ * (like when the plan is computed off the UI thread).</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@Data
+public class PChildrenPlan{
+	@Setter(AccessLevel.NONE)
+	private List<PChildPlan> childrenPlan = new ArrayList<>();
+	
+	@Setter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private volatile boolean frozen = false;
+	
+	public void addChildPlan(PChildPlan childPlan) {
+		if(frozen) {
+			throw new PComponentException("Children plan is frozen, and cannot be changed after it is handed over to the framework");
+		}
+		childrenPlan.add(childPlan);
+	}
+	
+	/**
+	 * Make this plan immutable.
+	 */
+	public void freeze() {
+		if(!frozen) {
+			childrenPlan = Collections.unmodifiableList(childrenPlan);
+			frozen = true;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package net.progressit.progressive;
+
+import java.util.function.Function;
+
+/**
+ * A memoized value derived from a component's data, like a filtered list, a total or a grouped map.
+ * <p>Declared once per component (a field, made with <code>computed</code> in the component), with the input slices it depends on and the function which derives it.
+ * <code>get(data)</code> recomputes lazily, and only when the inputs have changed since the last computation, 
+ * as per the component's <code>PChangeDetection</code> (identity first, so unchanged slices are not walked).
+ * Within one <code>setData</code> pass, <code>renderSelf</code> and <code>renderChildrenPlan</code> get the same data object, 
+ * so the second <code>get</code> returns the first one's result without even taking the inputs again.</p>
+ * <p>The compute function must derive the value only from the data passed in. Like all data, the value has to be treated as immutable, as it is shared.
+ * The cache is a single immutable snapshot, so <code>get</code> is safe from an async children plan executor as well: a race at most computes twice.</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <T> the component's data type
+ * @param <R> the derived value type
+ */
+public final class PComputed<T,R> {
+	private final PBaseComponent<?,T,?> component;
+	private final Function<T, PPartition> inputs;
+	private final Function<T, R> compute;
+	
+	private volatile Snapshot<T,R> snapshot = null;
+	private long computeCount = 0;
+	
+	PComputed(PBaseComponent<?,T,?> component, Function<T, PPartition> inputs, Function<T, R> compute) {
+		this.component = component;
+		this.inputs = inputs;
+		this.compute = compute;
+	}
+	
+	/**
+	 * The value for the given data. Recomputed only if the inputs taken from it differ from the ones of the cached value.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public R get(T data) {
+		Snapshot<T,R> cached = snapshot;
+		if(cached!=null && cached.data==data) {
+			return cached.value;
+		}
+		PPartition newInputs = inputs.apply(data);
+		if(cached!=null && newInputs.sameAs(cached.inputs, component.getChangeDetection())) {
+			snapshot = new Snapshot<>(data, cached.inputs, cached.value); //Same value, remembered for this data as well.
+			return cached.value;
+		}
+		PTrace.trace(component, "Computing derived value ::", newInputs);
+		R value = compute.apply(data);
+		computeCount++;
+		snapshot = new Snapshot<>(data, newInputs, value);
+		return value;
+	}
+	
+	/**
+	 * Drops the cached value, so that the next <code>get</code> recomputes. Only needed if the compute function depends on something other than the data.
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+	
+	/**
+	 * Number of times the value has been computed. For tests and diagnostics.
+	 */
+	public long getComputeCount() {
+		return computeCount;
+	}
+	
+	private static final class Snapshot<T,R> {
+		private final T data;
+		private final PPartition inputs;
+		private final R value;
+		
+		private Snapshot(T data, PPartition inputs, R value) {
+			this.data = data;
+			this.inputs = inputs;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.progressit.progressive;
+
+/**
+ * Delivers the events posted by a PComponent to the listener registered by its parent.
+ * <p>Listener methods are found by the Guava <code>@Subscribe</code> annotation, and picked based on the event class in the method signature.
+ * A PComponent creates its dispatcher through <code>createEventDispatcher</code>, which can be overridden to plug in a different implementation.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public interface PEventDispatcher {
+	public void register(PEventListener listener);
+	public void unregister(PEventListener listener);
+	public void post(Object event);
+}
@@ -2,7 +2,7 @@ package net.progressit.progressive;
 
 /**
  * A marker interface within which different event listeners methods are expected to be held. 
- * Actual dispatch will happen based on event class in the method signature, via Google Event Bus.
+ * Actual dispatch will happen based on event class in the method signature of the Guava <code>@Subscribe</code> methods, via the component's <code>PEventDispatcher</code>.
  * 
  * @author theodore.r
  *
@@ -0,0 +1,170 @@
+package net.progressit.progressive;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of the render pipeline, all under the <em>Progressive</em> category.
+ * Only used behind <code>PFlightRecorder.isEnabled()</code>, so no event is created while no recording wants them. The classes themselves are loaded
+ * (and their event types registered, disabled) when <code>PFlightRecorder</code> is initialized, as it installs the recording listener.
+ * <p>Events are passed around as <code>Object</code>, which keeps the JFR types out of <code>PComponent</code>'s signatures.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+final class PFlightEvents {
+	private static final List<Class<? extends Event>> EVENT_CLASSES = Arrays.asList(SetDataEvent.class, RenderSelfEvent.class, ChildrenPlanEvent.class, 
+			ReconcileEvent.class, PlaceEvent.class, RemoveEvent.class, PostEvent.class);
+	
+	private PFlightEvents() {
+	}
+	
+	/**
+	 * Keeps the gate in step with the recordings, which can be started and stopped at any time (like with <code>jcmd JFR.start</code>).
+	 */
+	static void install() {
+		FlightRecorder.addListener(new FlightRecorderListener() {
+			@Override
+			public void recorderInitialized(FlightRecorder recorder) {
+				update();
+			}
+			@Override
+			public void recordingStateChanged(Recording recording) {
+				update();
+			}
+		});
+	}
+	
+	private static void update() {
+		boolean anyEnabled = false;
+		for(Class<? extends Event> eventClass:EVENT_CLASSES) {
+			anyEnabled |= EventType.getEventType(eventClass).isEnabled();
+		}
+		PFlightRecorder.setEnabled(anyEnabled);
+	}
+	
+	static Object beginSetData() {
+		return begin(new SetDataEvent());
+	}
+	static Object beginRenderSelf() {
+		return begin(new RenderSelfEvent());
+	}
+	static Object beginChildrenPlan() {
+		return begin(new ChildrenPlanEvent());
+	}
+	static Object beginReconcile() {
+		return begin(new ReconcileEvent());
+	}
+	static Object beginPlace() {
+		return begin(new PlaceEvent());
+	}
+	static Object beginRemove() {
+		return begin(new RemoveEvent());
+	}
+	static Object beginPost() {
+		return begin(new PostEvent());
+	}
+	
+	private static Object begin(ComponentEvent event) {
+		event.begin();
+		return event;
+	}
+	
+	static void commit(Object event, PBaseComponent<?,?,?> component, int childCount) {
+		ComponentEvent componentEvent = (ComponentEvent) event;
+		componentEvent.end();
+		if(componentEvent.shouldCommit()) {
+			componentEvent.componentClass = component.getClass();
+			componentEvent.depth = component.getDepth();
+			componentEvent.childCount = childCount;
+			componentEvent.commit();
+		}
+	}
+	static void commitSetData(Object event, PBaseComponent<?,?,?> component, int childCount, boolean noOp) {
+		((SetDataEvent) event).noOp = noOp;
+		commit(event, component, childCount);
+	}
+	static void commitReconcile(Object event, PBaseComponent<?,?,?> component, int childCount, int oldChildCount, boolean keyed) {
+		((ReconcileEvent) event).oldChildCount = oldChildCount;
+		((ReconcileEvent) event).keyed = keyed;
+		commit(event, component, childCount);
+	}
+	static void commitPost(Object event, PBaseComponent<?,?,?> component, int childCount, Class<?> eventClass) {
+		((PostEvent) event).eventClass = eventClass;
+		commit(event, component, childCount);
+	}
+	
+	@Category("Progressive")
+	@Enabled(false)
+	@StackTrace(false)
+	abstract static class ComponentEvent extends Event{
+		@Label("Component Class")
+		Class<?> componentClass;
+		@Label("Depth")
+		@Description("Depth of the component in the placed tree (root is 0)")
+		int depth;
+		@Label("Child Count")
+		@Description("Children of the component, after the operation")
+		int childCount;
+	}
+	
+	@Name("net.progressit.progressive.SetData")
+	@Label("Set Data")
+	@Description("Change detection and render of new data (after coalescing, when a render scheduler is used)")
+	static class SetDataEvent extends ComponentEvent{
+		@Label("No-op")
+		@Description("The data had not changed, and nothing was rendered")
+		boolean noOp;
+	}
+	
+	@Name("net.progressit.progressive.RenderSelf")
+	@Label("Render Self")
+	static class RenderSelfEvent extends ComponentEvent{
+	}
+	
+	@Name("net.progressit.progressive.ChildrenPlan")
+	@Label("Children Plan")
+	@Description("renderChildrenPlan, on the UI thread or on the children plan executor")
+	static class ChildrenPlanEvent extends ComponentEvent{
+	}
+	
+	@Name("net.progressit.progressive.Reconcile")
+	@Label("Reconcile")
+	@Description("Diff of the new children plan against the rendered one, and the resulting placements")
+	static class ReconcileEvent extends ComponentEvent{
+		@Label("Old Child Count")
+		int oldChildCount;
+		@Label("Keyed")
+		boolean keyed;
+	}
+	
+	@Name("net.progressit.progressive.Place")
+	@Label("Place")
+	static class PlaceEvent extends ComponentEvent{
+	}
+	
+	@Name("net.progressit.progressive.Remove")
+	@Label("Remove")
+	static class RemoveEvent extends ComponentEvent{
+	}
+	
+	@Name("net.progressit.progressive.Post")
+	@Label("Post")
+	@Description("Dispatch of an event from the component to its listener")
+	static class PostEvent extends ComponentEvent{
+		@Label("Event Class")
+		Class<?> eventClass;
+	}
+}
@@ -0,0 +1,38 @@
+package net.progressit.progressive;
+
+/**
+ * Gate for the Java Flight Recorder events of the render pipeline (see <code>PFlightEvents</code>).
+ * <p>The events are disabled by default. They are recorded once a recording enables them, for example with a custom <code>.jfc</code> which has
+ * <code>&lt;event name="net.progressit.progressive.SetData"&gt;&lt;setting name="enabled"&gt;true&lt;/setting&gt;&lt;/event&gt;</code> (and the same for
+ * <code>RenderSelf</code>, <code>ChildrenPlan</code>, <code>Reconcile</code>, <code>Place</code>, <code>Remove</code> and <code>Post</code>).</p>
+ * <p>Until then, each framework hook is one volatile read: no event is created. This class does not touch the JFR API itself,
+ * so it also loads on Java 8 runtimes older than 8u272, which have no <code>jdk.jfr</code>, and where the gate just stays shut.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+final class PFlightRecorder {
+	private static volatile boolean enabled = false;
+	
+	static {
+		try {
+			PFlightEvents.install();
+		}catch(LinkageError e) {
+			//No JFR in this runtime.
+		}
+	}
+	
+	private PFlightRecorder() {
+	}
+	
+	/**
+	 * True while a running recording has any of the Progressive events enabled.
+	 */
+	static boolean isEnabled() {
+		return enabled;
+	}
+	
+	static void setEnabled(boolean enabled) {
+		PFlightRecorder.enabled = enabled;
+	}
+}
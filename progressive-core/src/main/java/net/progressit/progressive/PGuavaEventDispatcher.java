@@ -0,0 +1,26 @@
+package net.progressit.progressive;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * Dispatches through a Guava <code>EventBus</code>, which looks up the subscriber methods reflectively.
+ * 
+ * @author theodore.r
+ *
+ */
+public class PGuavaEventDispatcher implements PEventDispatcher {
+	private final EventBus bus = new EventBus();
+	
+	@Override
+	public void register(PEventListener listener) {
+		bus.register(listener);
+	}
+	@Override
+	public void unregister(PEventListener listener) {
+		bus.unregister(listener);
+	}
+	@Override
+	public void post(Object event) {
+		bus.post(event);
+	}
+}
@@ -0,0 +1,110 @@
+package net.progressit.progressive;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A deterministic, single threaded stand-in for the toolkit's UI thread, for tests and benchmarks.
+ * <p>It has no thread of its own. <code>run</code> makes the calling thread the UI thread (see <code>PHost</code>) while it runs the given task, 
+ * and then runs every task posted in the meantime, in order, until the queue is empty. So when <code>run</code> returns, all the renders it caused 
+ * have happened, and there is no timing involved. Tasks may be posted from any thread; they run at the next <code>run</code>.</p>
+ * <p>Tasks for when the UI is idle (like placing deferred children) are kept apart, and only run by <code>runIdle</code>. 
+ * So a test or benchmark can look at the tree as of the first paint, and then at the tree after the idle work.</p>
+ * <p>Use one executor per tree. Separate executors can run on separate threads at the same time. 
+ * Pair it with in-memory nodes and placers (<code>PMemoryNode</code>), so that nothing needs a toolkit.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PHeadlessExecutor implements Executor {
+	private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+	private final BlockingQueue<Runnable> idleTasks = new LinkedBlockingQueue<>();
+	
+	@Override
+	public void execute(Runnable task) {
+		tasks.add(task);
+	}
+	
+	/**
+	 * Keep the task for <code>runIdle</code>.
+	 */
+	public void executeWhenIdle(Runnable task) {
+		idleTasks.add(task);
+	}
+	
+	/**
+	 * Run the task as the UI thread, then run posted tasks until idle.
+	 */
+	public synchronized void run(Runnable task) {
+		PHeadlessExecutor previous = PHost.enter(this);
+		try {
+			task.run();
+			runQueued();
+		}finally {
+			PHost.exit(previous);
+		}
+	}
+	
+	/**
+	 * Run posted tasks until idle.
+	 * @return the number of tasks run
+	 */
+	public synchronized int runUntilIdle() {
+		PHeadlessExecutor previous = PHost.enter(this);
+		try {
+			return runQueued();
+		}finally {
+			PHost.exit(previous);
+		}
+	}
+	
+	/**
+	 * Wait for a task to be posted (like the result of an async children plan), then run until idle.
+	 * @return false if nothing was posted within the timeout
+	 */
+	public synchronized boolean awaitAndRun(long timeout, TimeUnit unit) throws InterruptedException {
+		Runnable first = tasks.poll(timeout, unit);
+		if(first==null) {
+			return false;
+		}
+		run(first);
+		return true;
+	}
+	
+	/**
+	 * Run the idle tasks (and the tasks they post), including idle tasks which they add, until there are none left.
+	 * @return the number of idle tasks run
+	 */
+	public synchronized int runIdle() {
+		PHeadlessExecutor previous = PHost.enter(this);
+		try {
+			runQueued();
+			int count = 0;
+			Runnable task;
+			while((task = idleTasks.poll())!=null) {
+				task.run();
+				runQueued();
+				count++;
+			}
+			return count;
+		}finally {
+			PHost.exit(previous);
+		}
+	}
+	
+	public int getPendingCount() {
+		return tasks.size();
+	}
+	
+	private int runQueued() {
+		int count = 0;
+		Runnable task;
+		while((task = tasks.poll())!=null) {
+			task.run();
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,69 @@
+package net.progressit.progressive;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Thread policy of the framework: which thread is the UI thread, and how to get back onto it.
+ * <p>Normally that is the toolkit's UI thread, as told by the component's <code>PHostAdapter</code>. A thread which is running a <code>PHeadlessExecutor</code> 
+ * counts as the UI thread too, for that executor's components, and work which the framework posts back (async children plans, scheduled renders) 
+ * goes to that executor instead of the toolkit. The headless flag is per thread, so separate headless trees can render in parallel, 
+ * each on its own thread, without a toolkit.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PHost {
+	private static final ThreadLocal<PHeadlessExecutor> HEADLESS = new ThreadLocal<>();
+	
+	private PHost() {
+	}
+	
+	/**
+	 * Whether the current thread may call into the framework: the host's UI thread, or a thread which is running a headless executor.
+	 */
+	public static boolean isUiThread(PHostAdapter<?> host) {
+		return HEADLESS.get()!=null || host.isUiThread();
+	}
+	/**
+	 * Whether the current thread is running a headless executor. Toolkit specific work (layout, repaint) is skipped there.
+	 */
+	public static boolean isHeadless() {
+		return HEADLESS.get()!=null;
+	}
+	
+	/**
+	 * The executor which runs tasks on the current UI thread. Capture it on the UI thread, before handing work to another thread.
+	 */
+	static Executor uiExecutor(PHostAdapter<?> host) {
+		PHeadlessExecutor headless = HEADLESS.get();
+		return headless!=null?headless:host::invokeLater;
+	}
+	
+	/**
+	 * The executor which runs tasks on the current UI thread when it is idle. A headless executor keeps them for <code>runIdle</code>.
+	 */
+	static Executor idleExecutor(PHostAdapter<?> host) {
+		PHeadlessExecutor headless = HEADLESS.get();
+		return headless!=null?headless::executeWhenIdle:host::invokeWhenIdle;
+	}
+	
+	static void beginRender(PHostAdapter<?> host) {
+		if(HEADLESS.get()==null) host.beginRender();
+	}
+	static void endRender(PHostAdapter<?> host) {
+		if(HEADLESS.get()==null) host.endRender();
+	}
+	
+	static PHeadlessExecutor enter(PHeadlessExecutor executor) {
+		PHeadlessExecutor previous = HEADLESS.get();
+		HEADLESS.set(executor);
+		return previous;
+	}
+	static void exit(PHeadlessExecutor previous) {
+		if(previous==null) {
+			HEADLESS.remove();
+		}else {
+			HEADLESS.set(previous);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package net.progressit.progressive;
+
+import java.util.function.Consumer;
+
+/**
+ * The SPI between the toolkit neutral core (<code>PBaseComponent</code>) and a UI toolkit. Each toolkit module has one stateless implementation,
+ * which its <code>PComponent</code> returns from <code>getHost</code>.
+ * <p>Placing and removing nodes is not part of it, as that is what the <code>PBasePlacers</code> given by the parent do.
+ * The render hooks are skipped on headless threads (see <code>PHeadlessExecutor</code>).</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <N> UI node type of the toolkit
+ */
+public interface PHostAdapter<N> {
+	/**
+	 * Whether the current thread is the toolkit's UI thread.
+	 */
+	boolean isUiThread();
+	/**
+	 * Name of the UI thread, for error messages.
+	 */
+	String getUiThreadName();
+	/**
+	 * Run the task later on the UI thread.
+	 */
+	void invokeLater(Runnable task);
+	/**
+	 * Run the task on the UI thread once pending events (and the paint they cause) are done. Used for low priority work, like placing deferred children.
+	 * By default, the same as <code>invokeLater</code>.
+	 */
+	default void invokeWhenIdle(Runnable task) {
+		invokeLater(task);
+	}
+	
+	/**
+	 * Start watching whether the node is shown: visible, along with all of its ancestors (the window itself aside). 
+	 * The listener is called on the UI thread, each time that changes. Used for the components which suspend rendering while hidden.
+	 * By default, nodes are always shown. Also used on headless threads, so that an in-memory host can model hiding.
+	 * 
+	 * @return the watch, to read whether the node is shown now, and to stop it when the component is removed
+	 */
+	default ShownWatch watchShown(N uiComponent, Consumer<Boolean> listener) {
+		return ShownWatch.ALWAYS_SHOWN;
+	}
+	
+	/**
+	 * A watch started by <code>watchShown</code>. 
+	 */
+	interface ShownWatch {
+		/**
+		 * For the nodes which are always shown. Nothing to stop.
+		 */
+		ShownWatch ALWAYS_SHOWN = new ShownWatch() {
+			@Override
+			public boolean isShown() {
+				return true;
+			}
+			@Override
+			public void unwatch() {
+			}
+		};
+		
+		/**
+		 * Whether the node is shown now.
+		 */
+		boolean isShown();
+		/**
+		 * Stop watching. The listener is not called after this.
+		 */
+		void unwatch();
+	}
+	
+	/**
+	 * A render pass starts (outermost <code>setData</code>, async children apply, or a render scheduler flush). Passes can nest.
+	 */
+	default void beginRender() {
+	}
+	/**
+	 * A render pass ends. The outermost end is the place to commit deferred work, like layout.
+	 */
+	default void endRender() {
+	}
+	/**
+	 * The children of this node have been placed, moved or removed. It needs layout (now, or when the render pass ends).
+	 */
+	default void childrenChanged(N uiComponent) {
+	}
+	/**
+	 * This node was rendered (<code>renderSelf</code>). For diagnostics, like the render highlighter.
+	 */
+	default void selfRendered(N uiComponent) {
+	}
+}
@@ -0,0 +1,204 @@
+package net.progressit.progressive;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Render metrics per component class and per tree path, published over JMX (see <code>PMetricsMXBean</code>), so that the hot components
+ * of a running app can be watched in JConsole.
+ * <p>Metrics are off by default (unless the system property <code>progressive.metrics</code> is <code>true</code>), and can be switched 
+ * at runtime, from code or from JConsole. When off, each framework hook costs one volatile read. When on, the counters are <code>LongAdder</code>s,
+ * which stay cheap under contention (plans computed off the UI thread also record here).</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PMetrics {
+	private static final Logger LOGGER = LoggerFactory.getLogger( PMetrics.class );
+	private static final String OBJECT_NAME = "net.progressit.progressive:type=PMetrics";
+	
+	private static volatile boolean enabled = Boolean.getBoolean("progressive.metrics");
+	
+	private static final ConcurrentMap<String, Counters> byClass = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, Counters> byPath = new ConcurrentHashMap<>();
+	
+	static {
+		register();
+	}
+	
+	private PMetrics() {
+	}
+	
+	public static void enable() {
+		enabled = true;
+	}
+	public static void disable() {
+		enabled = false;
+	}
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	/**
+	 * Zero all the counters. Recorders already handed out keep working, as the counters are reset in place.
+	 */
+	public static void reset() {
+		byClass.values().forEach(Counters::reset);
+		byPath.values().forEach(Counters::reset);
+	}
+	
+	/**
+	 * Start time for a timed hook, or 0 when metrics are off (and the hook should not record).
+	 */
+	static long start() {
+		return enabled?System.nanoTime():0;
+	}
+	
+	static Recorder recorder(Class<?> componentClass, String path) {
+		return new Recorder(byClass.computeIfAbsent(componentClass.getName(), (k)->new Counters()), byPath.computeIfAbsent(path, (k)->new Counters()));
+	}
+	
+	/**
+	 * Name of a component class within a tree path.
+	 */
+	static String label(Class<?> componentClass) {
+		String name = componentClass.getSimpleName();
+		return name.isEmpty()?componentClass.getName():name;
+	}
+	
+	private static void register() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+		}catch(JMException | RuntimeException e) {
+			LOGGER.warn("Could not register " + OBJECT_NAME + " :: " + e);
+		}
+	}
+	
+	private static Map<String, PRenderStats> snapshot(Map<String, Counters> counters) {
+		Map<String, PRenderStats> stats = new TreeMap<>();
+		counters.forEach((key, value)->stats.put(key, value.snapshot()));
+		return stats;
+	}
+	
+	/**
+	 * Records for one component, into both its class and its tree path aggregates.
+	 */
+	static final class Recorder {
+		private final Counters classCounters;
+		private final Counters pathCounters;
+		
+		private Recorder(Counters classCounters, Counters pathCounters) {
+			this.classCounters = classCounters;
+			this.pathCounters = pathCounters;
+		}
+		
+		void setData(long started, boolean noOp) {
+			long nanos = System.nanoTime() - started;
+			classCounters.setDataCalls.increment();
+			classCounters.setDataNanos.add(nanos);
+			pathCounters.setDataCalls.increment();
+			pathCounters.setDataNanos.add(nanos);
+			if(noOp) {
+				classCounters.setDataNoOps.increment();
+				pathCounters.setDataNoOps.increment();
+			}
+		}
+		void renderSelf(long started) {
+			long nanos = System.nanoTime() - started;
+			classCounters.renderSelfCalls.increment();
+			classCounters.renderSelfNanos.add(nanos);
+			pathCounters.renderSelfCalls.increment();
+			pathCounters.renderSelfNanos.add(nanos);
+		}
+		void renderChildrenPlan(long started) {
+			long nanos = System.nanoTime() - started;
+			classCounters.renderChildrenPlanCalls.increment();
+			classCounters.renderChildrenPlanNanos.add(nanos);
+			pathCounters.renderChildrenPlanCalls.increment();
+			pathCounters.renderChildrenPlanNanos.add(nanos);
+		}
+		void diff(long started) {
+			long nanos = System.nanoTime() - started;
+			classCounters.diffCalls.increment();
+			classCounters.diffNanos.add(nanos);
+			pathCounters.diffCalls.increment();
+			pathCounters.diffNanos.add(nanos);
+		}
+		void childPlaced() {
+			classCounters.childrenPlaced.increment();
+			pathCounters.childrenPlaced.increment();
+		}
+		void childReused() {
+			classCounters.childrenReused.increment();
+			pathCounters.childrenReused.increment();
+		}
+		void childRemoved() {
+			classCounters.childrenRemoved.increment();
+			pathCounters.childrenRemoved.increment();
+		}
+		void eventDropped() {
+			classCounters.eventsDropped.increment();
+			pathCounters.eventsDropped.increment();
+		}
+	}
+	
+	private static final class Counters {
+		private final LongAdder setDataCalls = new LongAdder();
+		private final LongAdder setDataNoOps = new LongAdder();
+		private final LongAdder setDataNanos = new LongAdder();
+		private final LongAdder renderSelfCalls = new LongAdder();
+		private final LongAdder renderSelfNanos = new LongAdder();
+		private final LongAdder renderChildrenPlanCalls = new LongAdder();
+		private final LongAdder renderChildrenPlanNanos = new LongAdder();
+		private final LongAdder diffCalls = new LongAdder();
+		private final LongAdder diffNanos = new LongAdder();
+		private final LongAdder childrenPlaced = new LongAdder();
+		private final LongAdder childrenReused = new LongAdder();
+		private final LongAdder childrenRemoved = new LongAdder();
+		private final LongAdder eventsDropped = new LongAdder();
+		
+		private PRenderStats snapshot() {
+			return new PRenderStats(setDataCalls.sum(), setDataNoOps.sum(), setDataNanos.sum(), renderSelfCalls.sum(), renderSelfNanos.sum(), 
+					renderChildrenPlanCalls.sum(), renderChildrenPlanNanos.sum(), diffCalls.sum(), diffNanos.sum(), 
+					childrenPlaced.sum(), childrenReused.sum(), childrenRemoved.sum(), eventsDropped.sum());
+		}
+		private void reset() {
+			for(LongAdder adder:new LongAdder[] {setDataCalls, setDataNoOps, setDataNanos, renderSelfCalls, renderSelfNanos, renderChildrenPlanCalls, 
+					renderChildrenPlanNanos, diffCalls, diffNanos, childrenPlaced, childrenReused, childrenRemoved, eventsDropped}) {
+				adder.reset();
+			}
+		}
+	}
+	
+	private static final class MXBean implements PMetricsMXBean {
+		@Override
+		public boolean isEnabled() {
+			return PMetrics.isEnabled();
+		}
+		@Override
+		public void setEnabled(boolean enabled) {
+			PMetrics.enabled = enabled;
+		}
+		@Override
+		public Map<String, PRenderStats> getByComponentClass() {
+			return snapshot(byClass);
+		}
+		@Override
+		public Map<String, PRenderStats> getByTreePath() {
+			return snapshot(byPath);
+		}
+		@Override
+		public void reset() {
+			PMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package net.progressit.progressive;
+
+import java.util.Map;
+
+/**
+ * The JMX view of <code>PMetrics</code>, registered as <code>net.progressit.progressive:type=PMetrics</code> on the platform MBean server.
+ * 
+ * @author theodore.r
+ *
+ */
+public interface PMetricsMXBean {
+	boolean isEnabled();
+	void setEnabled(boolean enabled);
+	
+	/**
+	 * Aggregates keyed by component class name.
+	 */
+	Map<String, PRenderStats> getByComponentClass();
+	
+	/**
+	 * Aggregates keyed by tree path, which is the chain of component class names from the root (not indexed, so siblings of a class add up).
+	 */
+	Map<String, PRenderStats> getByTreePath();
+	
+	void reset();
+}
@@ -0,0 +1,115 @@
+package net.progressit.progressive;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import net.progressit.progressive.collections.PPersistentCollection;
+
+/**
+ * An immutable, ordered tuple of the data slices which impact a render (self or children).
+ * <p>Built with the fixed arity factories (<code>of(a)</code>, <code>of(a, b)</code>...), so no <code>Set</code> has to be allocated and filled.
+ * The framework compares the partition of the new data against the rendered one, as per the component's <code>PChangeDetection</code>.
+ * The hash code of each slice is computed at most once per partition, and kept for the next comparison. A new partition which is the same as
+ * the rendered one still replaces it, so the next data (which shares its slices with the latest data, not the first) is compared with the latest slices and their hashes.</p>
+ * <p>Slices which are persistent collections (<code>PVector</code>, <code>PHashMap</code>) keep their hash codes up to date themselves. So those are compared 
+ * by hash code first in every mode, and versions which share their structure are found equal without walking the shared parts.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PPartition {
+	private static final PPartition EMPTY = new PPartition(new Object[0]);
+	
+	private final Object[] slices;
+	private final int[] hashes;
+	private final boolean[] hashed;
+	
+	private PPartition(Object[] slices) {
+		this.slices = slices;
+		this.hashes = new int[slices.length];
+		this.hashed = new boolean[slices.length];
+	}
+	
+	public static PPartition empty() {
+		return EMPTY;
+	}
+	public static PPartition of(Object slice) {
+		return new PPartition(new Object[] {slice});
+	}
+	public static PPartition of(Object slice1, Object slice2) {
+		return new PPartition(new Object[] {slice1, slice2});
+	}
+	public static PPartition of(Object slice1, Object slice2, Object slice3) {
+		return new PPartition(new Object[] {slice1, slice2, slice3});
+	}
+	public static PPartition of(Object... slices) {
+		return slices.length==0?EMPTY:new PPartition(slices.clone());
+	}
+	/**
+	 * Wraps a legacy set based partition as a single slice, so that it is still compared with <code>Set.equals</code>.
+	 */
+	public static PPartition ofSet(Set<Object> set) {
+		return of(set);
+	}
+	
+	public int size() {
+		return slices.length;
+	}
+	public Object get(int index) {
+		return slices[index];
+	}
+	
+	/**
+	 * Whether this partition matches the other one as per the change detection mode.
+	 * 
+	 * @param other the previously rendered partition, may be null
+	 * @param changeDetection
+	 * @return
+	 */
+	public boolean sameAs(PPartition other, PChangeDetection changeDetection) {
+		if(other==this) {
+			return true;
+		}
+		if(other==null || other.slices.length!=slices.length) {
+			return false;
+		}
+		for(int i=0;i<slices.length;i++) {
+			Object slice = slices[i];
+			Object otherSlice = other.slices[i];
+			if(slice==otherSlice) {
+				continue;
+			}
+			if(slice==null || otherSlice==null) {
+				return false;
+			}
+			if((changeDetection==PChangeDetection.IDENTITY_HASH || slice instanceof PPersistentCollection) && hash(i)!=other.hash(i)) {
+				return false;
+			}
+			if(!slice.equals(otherSlice)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private int hash(int index) {
+		if(!hashed[index]) {
+			hashes[index] = slices[index].hashCode();
+			hashed[index] = true;
+		}
+		return hashes[index];
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof PPartition && sameAs((PPartition) obj, PChangeDetection.EQUALS);
+	}
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(slices);
+	}
+	@Override
+	public String toString() {
+		return "PPartition" + Arrays.toString(slices);
+	}
+}
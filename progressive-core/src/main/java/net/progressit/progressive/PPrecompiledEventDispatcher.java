@@ -0,0 +1,168 @@
+package net.progressit.progressive;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * The default dispatcher. The <code>@Subscribe</code> methods of a listener class are resolved only once per class, 
+ * and kept as <code>MethodHandle</code>s. So, registering a listener again (like when a child is re-used during diffing) 
+ * and posting events do not need any reflection.
+ * <p>Delivery follows the Guava <code>EventBus</code> behaviour: a method receives the events of its parameter type and sub-types, 
+ * an event posted from within a handler is delivered after the current one, and exceptions thrown by a handler are logged, not propagated.</p>
+ * <p>Like the rest of the framework, it is meant to be used from the UI thread only.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public class PPrecompiledEventDispatcher implements PEventDispatcher {
+	private static final Logger LOGGER = LoggerFactory.getLogger( PPrecompiledEventDispatcher.class.getName() );
+	
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private static final ClassValue<Handler[]> HANDLERS = new ClassValue<Handler[]>() {
+		@Override
+		protected Handler[] computeValue(Class<?> listenerClass) {
+			return resolveHandlers(listenerClass);
+		}
+	};
+	
+	private static final PEventListener[] NO_LISTENERS = new PEventListener[0];
+	
+	private static class Handler{
+		private final Class<?> eventType;
+		private final MethodHandle method;
+		private final String name;
+		private Handler(Class<?> eventType, MethodHandle method, String name) {
+			this.eventType = eventType;
+			this.method = method;
+			this.name = name;
+		}
+	}
+	
+	/**
+	 * Copied on write, so that a handler can register/unregister while an event is being delivered.
+	 */
+	private PEventListener[] listeners = NO_LISTENERS;
+	
+	private final ArrayDeque<Object> queuedEvents = new ArrayDeque<>();
+	private boolean dispatching = false;
+	
+	@Override
+	public void register(PEventListener listener) {
+		HANDLERS.get(listener.getClass()); //Resolve (once per class) and validate upfront.
+		for(PEventListener registered:listeners) {
+			if(registered==listener) {
+				return;
+			}
+		}
+		PEventListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+	
+	@Override
+	public void unregister(PEventListener listener) {
+		for(int i=0;i<listeners.length;i++) {
+			if(listeners[i]==listener) {
+				PEventListener[] newListeners = new PEventListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+	
+	@Override
+	public void post(Object event) {
+		if(dispatching) {
+			queuedEvents.add(event);
+			return;
+		}
+		dispatching = true;
+		try {
+			Object next = event;
+			while(next!=null) {
+				deliver(next);
+				next = queuedEvents.poll();
+			}
+		}finally {
+			dispatching = false;
+			queuedEvents.clear();
+		}
+	}
+	
+	private void deliver(Object event) {
+		for(PEventListener listener:listeners) {
+			for(Handler handler:HANDLERS.get(listener.getClass())) {
+				if(handler.eventType.isInstance(event)) {
+					invoke(handler, listener, event);
+				}
+			}
+		}
+	}
+	
+	private static void invoke(Handler handler, PEventListener listener, Object event) {
+		try {
+			handler.method.invokeExact((Object) listener, event);
+		}catch(Error e) {
+			throw e;
+		}catch(Throwable t) {
+			LOGGER.error("Exception thrown by subscriber method " + handler.name + " on event " + event, t);
+		}
+	}
+	
+	private static Handler[] resolveHandlers(Class<?> listenerClass) {
+		List<Handler> handlers = new ArrayList<>();
+		Set<String> seenSignatures = new HashSet<>();
+		List<Class<?>> types = new ArrayList<>();
+		collectTypes(listenerClass, types);
+		for(Class<?> type:types) {
+			for(Method method:type.getDeclaredMethods()) {
+				if(!method.isAnnotationPresent(Subscribe.class) || method.isSynthetic()) {
+					continue;
+				}
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				if(parameterTypes.length!=1) {
+					throw new PComponentException("Method " + method + " has @Subscribe annotation but has " + parameterTypes.length 
+							+ " parameters. Subscriber methods must have exactly 1 parameter.");
+				}
+				if(!seenSignatures.add(method.getName() + Arrays.toString(parameterTypes))) {
+					continue; //Overridden method already seen on a more specific type.
+				}
+				try {
+					method.setAccessible(true); //Listeners are usually anonymous classes.
+					MethodHandle handle = MethodHandles.lookup().unreflect(method).asType(HANDLER_TYPE);
+					handlers.add(new Handler(parameterTypes[0], handle, method.toString()));
+				}catch(IllegalAccessException | RuntimeException e) {
+					throw new PComponentException("Unable to access subscriber method " + method, e);
+				}
+			}
+		}
+		return handlers.toArray(new Handler[0]);
+	}
+	
+	private static void collectTypes(Class<?> type, List<Class<?>> types) {
+		if(type==null || type==Object.class || types.contains(type)) {
+			return;
+		}
+		types.add(type);
+		collectTypes(type.getSuperclass(), types);
+		for(Class<?> iface:type.getInterfaces()) {
+			collectTypes(iface, types);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package net.progressit.progressive;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pool of removed child components, per class, shared by all parents. Only children which the framework made from a <code>recyclable</code> 
+ * child plan are parked here, so an app which holds on to its own child instances never gets them handed to another parent.
+ * <p>A recycled component keeps its UI component, its own children and whatever <code>prePlacement</code> set up, so it is placed 
+ * without running <code>prePlacement</code> again. It then gets the new parent's placers, listener and props, like a re-used child.</p>
+ * <p>Parked components are held through <code>SoftReference</code>s, so they give way under heap pressure. Each class keeps at most 
+ * <code>maxPerClass</code> of them. Synchronized, as headless trees may render on several threads at once.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PRecyclePool {
+	private static int maxPerClass = 64;
+	private static final Map<Class<?>, Deque<SoftReference<PBaseComponent<?,?,?>>>> parked = new HashMap<>();
+	
+	private PRecyclePool() {
+	}
+	
+	public static synchronized void setMaxPerClass(int maxPerClass) {
+		PRecyclePool.maxPerClass = maxPerClass;
+		parked.values().forEach((components)->{
+			while(components.size()>maxPerClass) {
+				components.removeFirst();
+			}
+		});
+	}
+	public static synchronized void clear() {
+		parked.clear();
+	}
+	
+	static synchronized void park(PBaseComponent<?,?,?> component) {
+		Deque<SoftReference<PBaseComponent<?,?,?>>> components = parked.computeIfAbsent(component.getClass(), (k)->new ArrayDeque<>());
+		if(components.size()>=maxPerClass) {
+			components.removeFirst(); //Drop the oldest
+		}
+		components.addLast(new SoftReference<>(component));
+	}
+	
+	/**
+	 * @return a parked component of exactly this class, or null
+	 */
+	static synchronized PBaseComponent<?,?,?> take(Class<?> type) {
+		Deque<SoftReference<PBaseComponent<?,?,?>>> components = parked.get(type);
+		if(components==null) {
+			return null;
+		}
+		SoftReference<PBaseComponent<?,?,?>> reference;
+		while((reference = components.pollLast())!=null) {
+			PBaseComponent<?,?,?> component = reference.get();
+			if(component!=null) {
+				return component;
+			}
+		}
+		return null;
+	}
+}
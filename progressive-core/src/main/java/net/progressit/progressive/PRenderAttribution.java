@@ -0,0 +1,173 @@
+package net.progressit.progressive;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import net.progressit.progressive.collections.PPersistentCollection;
+
+/**
+ * Opt-in "why did this render" mode. For each render, records which partition slices differed from the rendered ones, which fields differed 
+ * (for data classes, like Lombok <code>@Data</code> values), and whether the data came from props or from the component itself (see <code>PRenderCause</code>).
+ * <p>Records are kept in a ring buffer per root component (the most recent <code>capacity</code> renders of its whole tree), and read with <code>getRecords</code>.
+ * Renders where only props flowed in, but the partitions show no real difference, never get here: those are already skipped by change detection.
+ * So a render with a trivial change (say, a new but equal-looking list) is the thing to look for.</p>
+ * <p>Off by default (unless the system property <code>progressive.attribution</code> is <code>true</code>). When off, the render path only reads a volatile flag.
+ * When on, diffing uses reflection and <code>toString</code>, so it is for diagnosis, not for production.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PRenderAttribution {
+	private static final int MAX_VALUE_LENGTH = 80;
+	
+	private static volatile boolean enabled = Boolean.getBoolean("progressive.attribution");
+	private static int capacity = 256;
+	private static final Map<PBaseComponent<?,?,?>, Deque<PRenderRecord>> recordsByRoot = new WeakHashMap<>();
+	
+	private PRenderAttribution() {
+	}
+	
+	public static void enable() {
+		enabled = true;
+	}
+	public static void disable() {
+		enabled = false;
+	}
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	/**
+	 * Records kept per root. Applies to records added from now on.
+	 */
+	public static synchronized void setCapacity(int capacity) {
+		PRenderAttribution.capacity = capacity;
+	}
+	
+	/**
+	 * The recorded renders of the tree under this root, oldest first.
+	 */
+	public static synchronized List<PRenderRecord> getRecords(PBaseComponent<?,?,?> root) {
+		Deque<PRenderRecord> records = recordsByRoot.get(root);
+		return records==null?Collections.emptyList():new ArrayList<>(records);
+	}
+	public static synchronized void clear(PBaseComponent<?,?,?> root) {
+		recordsByRoot.remove(root);
+	}
+	
+	/**
+	 * Called by the framework when a component is about to render. Partitions which did not change are passed as null.
+	 */
+	static void record(PBaseComponent<?,?,?> component, PRenderCause cause, PPartition oldSelf, PPartition newSelf, PPartition oldChildren, PPartition newChildren) {
+		PRenderRecord record = new PRenderRecord(System.currentTimeMillis(), component.getClass(), component.treePath(), cause, 
+				newSelf==null?null:diff(oldSelf, newSelf), newChildren==null?null:diff(oldChildren, newChildren));
+		synchronized(PRenderAttribution.class) {
+			Deque<PRenderRecord> records = recordsByRoot.computeIfAbsent(component.getRoot(), (k)->new ArrayDeque<>());
+			while(records.size()>=capacity && !records.isEmpty()) {
+				records.removeFirst();
+			}
+			records.addLast(record);
+		}
+	}
+	
+	private static List<String> diff(PPartition oldPartition, PPartition newPartition) {
+		List<String> changes = new ArrayList<>();
+		if(oldPartition==null) {
+			changes.add("first render");
+			return changes;
+		}
+		if(oldPartition.size()!=newPartition.size()) {
+			changes.add("partition size " + oldPartition.size() + " -> " + newPartition.size());
+			return changes;
+		}
+		for(int i=0;i<newPartition.size();i++) {
+			Object oldSlice = oldPartition.get(i);
+			Object newSlice = newPartition.get(i);
+			if(!Objects.equals(oldSlice, newSlice)) {
+				describe("[" + i + "]", oldSlice, newSlice, changes);
+			}
+		}
+		if(changes.isEmpty()) {
+			changes.add("equal slices, with different hash codes"); //Only with IDENTITY_HASH, for slices with a broken hashCode.
+		}
+		return changes;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void describe(String label, Object oldValue, Object newValue, List<String> changes) {
+		if(oldValue instanceof Set && newValue instanceof Set) {
+			//Legacy set based partition: match up what was removed and added.
+			Set<Object> removed = new LinkedHashSet<>((Set<Object>) oldValue);
+			removed.removeAll((Set<Object>) newValue);
+			Set<Object> added = new LinkedHashSet<>((Set<Object>) newValue);
+			added.removeAll((Set<Object>) oldValue);
+			if(removed.size()==1 && added.size()==1) {
+				describe(label, removed.iterator().next(), added.iterator().next(), changes);
+			}else {
+				for(Object value:removed) {
+					changes.add(label + " removed " + abbreviate(value));
+				}
+				for(Object value:added) {
+					changes.add(label + " added " + abbreviate(value));
+				}
+			}
+		}else if(oldValue!=null && newValue!=null && oldValue.getClass()==newValue.getClass() && isDataClass(oldValue.getClass())) {
+			int before = changes.size();
+			for(Class<?> type=oldValue.getClass();type!=Object.class;type=type.getSuperclass()) {
+				for(Field field:type.getDeclaredFields()) {
+					if(Modifier.isStatic(field.getModifiers())) {
+						continue;
+					}
+					Object oldField = read(field, oldValue);
+					Object newField = read(field, newValue);
+					if(!Objects.equals(oldField, newField)) {
+						changes.add(label + " " + type.getSimpleName() + "." + field.getName() + ": " + abbreviate(oldField) + " -> " + abbreviate(newField));
+					}
+				}
+			}
+			if(changes.size()==before) {
+				changes.add(label + " " + oldValue.getClass().getSimpleName() + " not equal, with no field differing");
+			}
+		}else {
+			changes.add(label + " " + abbreviate(oldValue) + " -> " + abbreviate(newValue));
+		}
+	}
+	
+	/**
+	 * Value classes of the app (which override equals, like Lombok <code>@Data</code> does). JDK classes and persistent collections are compared as a whole.
+	 */
+	private static boolean isDataClass(Class<?> type) {
+		String name = type.getName();
+		if(name.startsWith("java.") || name.startsWith("javax.") || type.isArray() || type.isEnum() || PPersistentCollection.class.isAssignableFrom(type)) {
+			return false;
+		}
+		try {
+			return type.getMethod("equals", Object.class).getDeclaringClass()!=Object.class;
+		}catch(NoSuchMethodException e) {
+			return false;
+		}
+	}
+	
+	private static Object read(Field field, Object target) {
+		try {
+			field.setAccessible(true);
+			return field.get(target);
+		}catch(ReflectiveOperationException | RuntimeException e) {
+			return "?";
+		}
+	}
+	
+	private static String abbreviate(Object value) {
+		String string = String.valueOf(value);
+		return string.length()<=MAX_VALUE_LENGTH?string:string.substring(0, MAX_VALUE_LENGTH) + "...";
+	}
+}
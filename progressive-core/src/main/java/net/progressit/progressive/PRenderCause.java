@@ -0,0 +1,14 @@
+package net.progressit.progressive;
+
+/**
+ * Where the data of a render came from.
+ * 
+ * @author theodore.r
+ *
+ */
+public enum PRenderCause {
+	/** New props, from the parent's <code>diffAndRenderPlan</code> (or from <code>place</code>, for a root), merged into data in <code>postProps</code>. */
+	PROPS,
+	/** The component's own <code>setData</code>, like from its UI event handlers. */
+	SELF
+}
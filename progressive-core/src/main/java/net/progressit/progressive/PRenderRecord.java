@@ -0,0 +1,23 @@
+package net.progressit.progressive;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * One render, as recorded by <code>PRenderAttribution</code>.
+ * <p>The changes are descriptions of the partition slices which differed (and of the differing fields, for data classes). 
+ * A null list means that part was not rendered.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@Data
+public class PRenderRecord {
+	private final long timeMillis;
+	private final Class<?> componentClass;
+	private final String treePath;
+	private final PRenderCause cause;
+	private final List<String> selfChanges;
+	private final List<String> childrenChanges;
+}
@@ -0,0 +1,66 @@
+package net.progressit.progressive;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * An opt-in scheduler which coalesces <code>PComponent.setData</code> calls.
+ * <p>Instead of rendering on every <code>setData</code>, components are marked dirty, and all dirty components are rendered 
+ * once in the next UI pulse (the host's <code>invokeLater</code>, or a headless executor task), with only the latest data.</p>
+ * <p>The flush goes top-down (by depth in the placed tree), so a parent renders first, and its new props reach each child
+ * only once per pulse. Children dirtied by the parent's render are picked up within the same flush.</p>
+ * <p>Tests can call <code>flushSync</code> to render the pending components right away.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public class PRenderScheduler {
+	private final PriorityQueue<PBaseComponent<?,?,?>> dirtyComponents = new PriorityQueue<>(Comparator.comparingInt(PBaseComponent::getDepth));
+	private boolean flushScheduled = false;
+	/**
+	 * Host of the components scheduled here. A scheduler serves one tree, so one toolkit.
+	 */
+	private PHostAdapter<?> host = null;
+	
+	void markDirty(PBaseComponent<?,?,?> component) {
+		dirtyComponents.add(component);
+		host = component.getHost();
+		if(!flushScheduled) {
+			flushScheduled = true;
+			PHost.uiExecutor(host).execute(this::flush);
+		}
+	}
+	
+	/**
+	 * Render all the pending components now, instead of waiting for the next pulse.
+	 */
+	public void flushSync() {
+		if(host==null) {
+			return; //Nothing scheduled yet
+		}
+		if(!PHost.isUiThread(host)) {
+			throw new PComponentException("flushSync should be called on " + host.getUiThreadName() + "!");
+		}
+		flush();
+	}
+	
+	/**
+	 * Components marked dirty during the flush are drained in the same pass, so the flag stays set (and no extra flush is scheduled) until the queue is empty.
+	 */
+	private void flush() {
+		PHost.beginRender(host); //One layout commit for the whole flush
+		try {
+			PBaseComponent<?,?,?> component;
+			while((component = dirtyComponents.poll())!=null) {
+				component.flushScheduledData();
+			}
+		}finally {
+			flushScheduled = false;
+			PHost.endRender(host);
+			if(!dirtyComponents.isEmpty()) { //A render failed part way. The rest go in the next pulse.
+				flushScheduled = true;
+				PHost.uiExecutor(host).execute(this::flush);
+			}
+		}
+	}
+}
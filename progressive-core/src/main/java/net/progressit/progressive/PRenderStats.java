@@ -0,0 +1,52 @@
+package net.progressit.progressive;
+
+import java.beans.ConstructorProperties;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A snapshot of the render counters of one component class or tree path. Times are wall clock, in nanoseconds, and inclusive
+ * (the <code>setData</code> time covers its renders, and those of the children it sets props on).
+ * <p>The no-op count is of <code>setData</code> calls which rendered nothing, because the data had not changed.
+ * The dropped events are conflated events which were replaced by a later one before being delivered.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+@Getter
+@ToString
+public class PRenderStats {
+	private final long setDataCalls;
+	private final long setDataNoOps;
+	private final long setDataNanos;
+	private final long renderSelfCalls;
+	private final long renderSelfNanos;
+	private final long renderChildrenPlanCalls;
+	private final long renderChildrenPlanNanos;
+	private final long diffCalls;
+	private final long diffNanos;
+	private final long childrenPlaced;
+	private final long childrenReused;
+	private final long childrenRemoved;
+	private final long eventsDropped;
+	
+	@ConstructorProperties({"setDataCalls", "setDataNoOps", "setDataNanos", "renderSelfCalls", "renderSelfNanos", "renderChildrenPlanCalls", "renderChildrenPlanNanos", 
+		"diffCalls", "diffNanos", "childrenPlaced", "childrenReused", "childrenRemoved", "eventsDropped"})
+	public PRenderStats(long setDataCalls, long setDataNoOps, long setDataNanos, long renderSelfCalls, long renderSelfNanos, long renderChildrenPlanCalls, long renderChildrenPlanNanos, 
+			long diffCalls, long diffNanos, long childrenPlaced, long childrenReused, long childrenRemoved, long eventsDropped) {
+		this.setDataCalls = setDataCalls;
+		this.setDataNoOps = setDataNoOps;
+		this.setDataNanos = setDataNanos;
+		this.renderSelfCalls = renderSelfCalls;
+		this.renderSelfNanos = renderSelfNanos;
+		this.renderChildrenPlanCalls = renderChildrenPlanCalls;
+		this.renderChildrenPlanNanos = renderChildrenPlanNanos;
+		this.diffCalls = diffCalls;
+		this.diffNanos = diffNanos;
+		this.childrenPlaced = childrenPlaced;
+		this.childrenReused = childrenReused;
+		this.childrenRemoved = childrenRemoved;
+		this.eventsDropped = eventsDropped;
+	}
+}
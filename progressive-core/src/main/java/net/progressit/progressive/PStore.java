@@ -0,0 +1,225 @@
+package net.progressit.progressive;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * The application state, held once per <code>globalBus</code>, which components subscribe to in slices.
+ * <p>A component selects the slice it needs (with <code>select</code> in the component), and is notified only when that slice changes,
+ * instead of every subscriber being sent every change. The selection is evaluated once per change, and compared with the previous one
+ * (identity first, then <code>equals</code>).</p>
+ * <p><code>setState</code> only records the new state. All the changes in one UI pulse are delivered together in the next one, with the latest state.
+ * Notifications go top-down (by depth in the placed tree), so a parent re-renders before its children, and a child which the parent's render 
+ * removes is not notified at all.</p>
+ * <p>Subscriptions are active while their component is placed. They are dropped when it is removed, and picked up again if it is placed again (like when recycled).</p>
+ * <p>The state has to be immutable, like all data. It is set on the UI thread, and can be read from any thread.</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <S> the state type
+ */
+public class PStore<S> {
+	/**
+	 * Weak keys, so a bus which is no longer used drops its entry. <code>EventBus</code> has identity equality.
+	 * The stores are weak too, as a store reaches its bus (through its subscribed components), and would keep its own entry alive.
+	 */
+	private static final Map<EventBus, WeakReference<PStore<?>>> STORES = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	private static final Comparator<Subscription<?,?>> BY_DEPTH = Comparator.comparingInt((subscription)->subscription.component.getDepth());
+	
+	/**
+	 * Set once the first subscription is made. Until then, placing and removing components skips the subscription bookkeeping of their children.
+	 */
+	private static volatile boolean inUse = false;
+	
+	private volatile S state;
+	/**
+	 * In registration order, which is kept among subscriptions at the same depth.
+	 */
+	private final Set<Subscription<S,?>> subscriptions = new LinkedHashSet<>();
+	private boolean flushScheduled = false;
+	/**
+	 * Host of the subscribed components, taken from the first one.
+	 */
+	private PHostAdapter<?> host = null;
+	
+	/**
+	 * Creates the store for the given bus. Components which are given the same bus find it with <code>forBus</code>.
+	 * <p>The bus only refers to the store weakly. Keep a reference to it (like the application does to set the state), 
+	 * for as long as components should find it.</p>
+	 */
+	public PStore(EventBus globalBus, S initialState) {
+		this.state = initialState;
+		synchronized(STORES) {
+			if(find(globalBus)!=null) {
+				throw new PComponentException("There is already a store for this global bus");
+			}
+			STORES.put(globalBus, new WeakReference<>(this));
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <S> PStore<S> forBus(EventBus globalBus) {
+		PStore<S> store = globalBus==null?null:(PStore<S>) find(globalBus);
+		if(store==null) {
+			throw new PComponentException("No PStore has been created for this global bus");
+		}
+		return store;
+	}
+	
+	private static PStore<?> find(EventBus globalBus) {
+		WeakReference<PStore<?>> reference = STORES.get(globalBus);
+		return reference==null?null:reference.get();
+	}
+	
+	static boolean isInUse() {
+		return inUse;
+	}
+	
+	public S getState() {
+		return state;
+	}
+	
+	/**
+	 * Sets the new state. Subscribers whose slice changed are notified in the next UI pulse.
+	 */
+	public void setState(S newState) {
+		ensureUiThread();
+		
+		state = newState;
+		if(!flushScheduled && host!=null) {
+			flushScheduled = true;
+			PHost.uiExecutor(host).execute(this::flush);
+		}
+	}
+	/**
+	 * Sets the state derived from the current one.
+	 */
+	public void update(UnaryOperator<S> reducer) {
+		setState(reducer.apply(state));
+	}
+	
+	/**
+	 * Notify the subscribers now, instead of waiting for the next pulse.
+	 */
+	public void flushSync() {
+		if(host==null) {
+			return; //Nobody has subscribed yet
+		}
+		ensureUiThread();
+		flush();
+	}
+	
+	private void flush() {
+		flushScheduled = false;
+		S current = state;
+		List<Subscription<S,?>> ordered = new ArrayList<>(subscriptions);
+		ordered.sort(BY_DEPTH); //Stable
+		
+		//Select everything first, so that the notifications all see the same state
+		List<Subscription<S,?>> changed = new ArrayList<>();
+		for(Subscription<S,?> subscription:ordered) {
+			if(subscription.select(current)) {
+				changed.add(subscription);
+			}
+		}
+		if(changed.isEmpty()) {
+			return;
+		}
+		PHost.beginRender(host); //One layout commit for all the notifications
+		try {
+			for(Subscription<S,?> subscription:changed) {
+				if(subscription.registered) { //Else, removed by an earlier notification's render
+					subscription.notifyChange();
+				}
+			}
+		}finally {
+			PHost.endRender(host);
+		}
+	}
+	
+	void register(Subscription<S,?> subscription) {
+		if(host==null) {
+			host = subscription.component.getHost();
+		}
+		subscription.registered = true;
+		subscription.select(state); //Catch up, without a notification. Props are (re)set after this anyway.
+		subscriptions.add(subscription);
+	}
+	void unregister(Subscription<S,?> subscription) {
+		subscription.registered = false;
+		subscriptions.remove(subscription);
+	}
+	
+	private void ensureUiThread() {
+		if(host!=null && !PHost.isUiThread(host)) {
+			throw new PComponentException("PStore state should be set on " + host.getUiThreadName() + "!");
+		}
+	}
+	
+	/**
+	 * A component's selection of a slice of the state. <code>get</code> gives the slice as last delivered, for merging into data in <code>postProps</code>.
+	 * 
+	 * @author theodore.r
+	 *
+	 * @param <S>
+	 * @param <V> the slice type
+	 */
+	public static final class Subscription<S,V> {
+		private final PStore<S> store;
+		private final PBaseComponent<?,?,?> component;
+		private final Function<S,V> selector;
+		private final Consumer<V> onChange;
+		
+		private boolean registered = false;
+		private V value = null;
+		
+		Subscription(PStore<S> store, PBaseComponent<?,?,?> component, Function<S,V> selector, Consumer<V> onChange) {
+			this.store = store;
+			this.component = component;
+			this.selector = selector;
+			this.onChange = onChange;
+			inUse = true;
+		}
+		
+		public V get() {
+			return registered?value:selector.apply(store.getState());
+		}
+		
+		/**
+		 * @return whether the slice changed
+		 */
+		private boolean select(S state) {
+			V newValue = selector.apply(state);
+			if(newValue==value || Objects.equals(newValue, value)) {
+				return false;
+			}
+			value = newValue;
+			return true;
+		}
+		private void notifyChange() {
+			PTrace.trace(component, "Store slice has changed ::", value);
+			onChange.accept(value);
+		}
+		
+		void mount() {
+			if(!registered) store.register(this);
+		}
+		void unmount() {
+			store.unregister(this);
+		}
+	}
+}
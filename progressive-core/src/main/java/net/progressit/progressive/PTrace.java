@@ -0,0 +1,91 @@
+package net.progressit.progressive;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Framework trace logging, which can be switched on for all components or per component class at runtime.
+ * <p>Tracing is off by default (unless the system property <code>progressive.trace</code> is <code>true</code>). 
+ * When it is off for a component class, the <code>trace</code> methods only do a couple of field reads, and allocate nothing:
+ * there are no varargs, int arguments are not boxed, and messages are formatted only when the trace is actually written.
+ * Call sites which need to compute something for the message should check <code>isEnabled</code> first.</p>
+ * <p>Enabled traces are written to the <code>PComponent</code> logger at INFO level.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PTrace {
+	private static final Logger LOGGER = LoggerFactory.getLogger( "net.progressit.progressive.PComponent" );
+	
+	private static volatile boolean allEnabled = Boolean.getBoolean("progressive.trace");
+	
+	/**
+	 * Copied on write. Reads happen on every trace call, writes only when switching.
+	 */
+	private static volatile Set<Class<?>> enabledClasses = Collections.emptySet();
+	
+	private PTrace() {
+	}
+	
+	public static void enableAll() {
+		allEnabled = true;
+	}
+	public static void disableAll() {
+		allEnabled = false;
+		enabledClasses = Collections.emptySet();
+	}
+	/**
+	 * Switch on tracing for the given component class (exact class, not sub-classes).
+	 */
+	public static synchronized void enable(Class<?> componentClass) {
+		Set<Class<?>> newClasses = new HashSet<>(enabledClasses);
+		newClasses.add(componentClass);
+		enabledClasses = newClasses;
+	}
+	public static synchronized void disable(Class<?> componentClass) {
+		Set<Class<?>> newClasses = new HashSet<>(enabledClasses);
+		newClasses.remove(componentClass);
+		enabledClasses = newClasses.isEmpty()?Collections.emptySet():newClasses;
+	}
+	
+	public static boolean isEnabled(Class<?> componentClass) {
+		if(allEnabled) {
+			return true;
+		}
+		Set<Class<?>> classes = enabledClasses;
+		return !classes.isEmpty() && classes.contains(componentClass);
+	}
+	
+	public static void trace(Object component, String message) {
+		if(isEnabled(component.getClass())) {
+			write(component, message);
+		}
+	}
+	public static void trace(Object component, String message, Object arg) {
+		if(isEnabled(component.getClass())) {
+			write(component, message + " " + string(arg));
+		}
+	}
+	public static void trace(Object component, String message, int arg) {
+		if(isEnabled(component.getClass())) {
+			write(component, message + " " + arg);
+		}
+	}
+	public static void trace(Object component, String message, Object arg1, Object arg2) {
+		if(isEnabled(component.getClass())) {
+			write(component, message + " " + string(arg1) + " " + string(arg2));
+		}
+	}
+	
+	private static void write(Object component, String message) {
+		LOGGER.info(component.getClass().getSimpleName() + ": " + message);
+	}
+	
+	private static String string(Object o) {
+		return o==null?"*null*":o.toString();
+	}
+}
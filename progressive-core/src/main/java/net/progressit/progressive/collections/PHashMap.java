@@ -0,0 +1,460 @@
+package net.progressit.progressive.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A persistent (immutable, structurally shared) hash map: a hash array mapped trie (HAMT), branching 32 ways on 5 bits of the key's hash per level.
+ * <p><code>get</code>, <code>with</code> and <code>without</code> are O(log32 n), copying only the path to the changed entry. Keys with the same full hash 
+ * share a collision node. Null keys are not supported (null values are).</p>
+ * <p>It is a read-only <code>java.util.Map</code> (the <code>Map</code> mutators throw), and equal to any map with the same entries.
+ * The <code>Map</code> hash code (the sum of the entry hash codes) is updated with each edit rather than recomputed. See <code>PPersistentCollection</code>.</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <K>
+ * @param <V>
+ */
+public final class PHashMap<K,V> extends AbstractMap<K,V> implements PPersistentCollection {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final Object NOT_FOUND = new Object();
+	
+	private static final PHashMap<?,?> EMPTY = new PHashMap<>(null, 0, 0);
+	
+	/**
+	 * Null when empty.
+	 */
+	private final Node root;
+	private final int size;
+	private final int hash;
+	
+	private transient Set<Map.Entry<K,V>> entrySet = null;
+	
+	private PHashMap(Node root, int size, int hash) {
+		this.root = root;
+		this.size = size;
+		this.hash = hash;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <K,V> PHashMap<K,V> empty() {
+		return (PHashMap<K,V>) EMPTY;
+	}
+	public static <K,V> PHashMap<K,V> of(K key, V value) {
+		return PHashMap.<K,V>empty().with(key, value);
+	}
+	public static <K,V> PHashMap<K,V> of(K key1, V value1, K key2, V value2) {
+		return PHashMap.<K,V>empty().with(key1, value1).with(key2, value2);
+	}
+	@SuppressWarnings("unchecked")
+	public static <K,V> PHashMap<K,V> from(Map<? extends K, ? extends V> map) {
+		if(map instanceof PHashMap) {
+			return (PHashMap<K,V>) map;
+		}
+		PHashMap<K,V> result = empty();
+		for(Map.Entry<? extends K, ? extends V> entry:map.entrySet()) {
+			result = result.with(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Object value = find(key);
+		return value==NOT_FOUND?null:(V) value;
+	}
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key)!=NOT_FOUND;
+	}
+	private Object find(Object key) {
+		if(root==null || key==null) {
+			return NOT_FOUND;
+		}
+		return root.find(0, key.hashCode(), key);
+	}
+	
+	/**
+	 * A new version with the key mapped to the value. Returns this if the key is already mapped to the very same value.
+	 */
+	public PHashMap<K,V> with(K key, V value) {
+		if(key==null) {
+			throw new NullPointerException("Null keys are not supported");
+		}
+		Change change = new Change();
+		int keyHash = key.hashCode();
+		Node newRoot = (root==null?BitmapNode.EMPTY:root).with(0, keyHash, key, value, change);
+		if(newRoot==root) {
+			return this;
+		}
+		int newHash = hash + (keyHash ^ Objects.hashCode(value));
+		if(change.added) {
+			return new PHashMap<>(newRoot, size + 1, newHash);
+		}
+		return new PHashMap<>(newRoot, size, newHash - (keyHash ^ Objects.hashCode(change.oldValue)));
+	}
+	
+	/**
+	 * A new version without the key. Returns this if the key is not there.
+	 */
+	public PHashMap<K,V> without(Object key) {
+		if(root==null || key==null) {
+			return this;
+		}
+		Change change = new Change();
+		int keyHash = key.hashCode();
+		Node newRoot = root.without(0, keyHash, key, change);
+		if(!change.removed) {
+			return this;
+		}
+		return new PHashMap<>(newRoot, size - 1, hash - (keyHash ^ Objects.hashCode(change.oldValue)));
+	}
+	
+	@Override
+	public Set<Map.Entry<K,V>> entrySet() {
+		if(entrySet==null) {
+			entrySet = new AbstractSet<Map.Entry<K,V>>() {
+				@Override
+				public Iterator<Map.Entry<K,V>> iterator() {
+					return new EntryIterator<>(root);
+				}
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+		return entrySet;
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(obj==this) {
+			return true;
+		}
+		if(obj instanceof PHashMap) {
+			PHashMap<?,?> other = (PHashMap<?,?>) obj;
+			if(size!=other.size || hash!=other.hash) {
+				return false;
+			}
+			if(root==other.root) {
+				return true;
+			}
+			//Walk only the nodes which are not shared, while the two tries have the same shape. Else, look up each entry.
+			Boolean same = sameNodes(root, other.root);
+			if(same!=null) {
+				return same;
+			}
+		}
+		return obj instanceof Map && super.equals(obj);
+	}
+	
+	/**
+	 * @return null if the shapes differ, and the answer has to come from entry lookups
+	 */
+	private static Boolean sameNodes(Node node, Node otherNode) {
+		if(node==otherNode) {
+			return Boolean.TRUE;
+		}
+		if(!(node instanceof BitmapNode) || !(otherNode instanceof BitmapNode) || ((BitmapNode) node).bitmap!=((BitmapNode) otherNode).bitmap) {
+			return null;
+		}
+		Object[] array = node.array;
+		Object[] otherArray = otherNode.array;
+		for(int i=0;i<array.length;i+=2) {
+			Object key = array[i];
+			Object otherKey = otherArray[i];
+			if(key==null && otherKey==null) {
+				Boolean same = sameNodes((Node) array[i + 1], (Node) otherArray[i + 1]);
+				if(same!=Boolean.TRUE) {
+					return same;
+				}
+			}else if(key!=null && otherKey!=null) {
+				if(!key.equals(otherKey)) {
+					return null; //Same slot, different keys: could still be at other places in the other trie.
+				}
+				if(!Objects.equals(array[i + 1], otherArray[i + 1])) {
+					return Boolean.FALSE;
+				}
+			}else {
+				return null;
+			}
+		}
+		return Boolean.TRUE;
+	}
+	
+	private static final class Change {
+		private boolean added = false;
+		private boolean removed = false;
+		private Object oldValue = null;
+	}
+	
+	/**
+	 * Key and value pairs in <code>array</code>. In a bitmap node, a null key marks a child node in the value slot.
+	 */
+	private static abstract class Node {
+		final Object[] array;
+		
+		Node(Object[] array) {
+			this.array = array;
+		}
+		
+		abstract Object find(int shift, int keyHash, Object key);
+		abstract Node with(int shift, int keyHash, Object key, Object value, Change change);
+		/**
+		 * @return null if the node becomes empty
+		 */
+		abstract Node without(int shift, int keyHash, Object key, Change change);
+	}
+	
+	private static final class BitmapNode extends Node {
+		private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+		
+		private final int bitmap;
+		
+		BitmapNode(int bitmap, Object[] array) {
+			super(array);
+			this.bitmap = bitmap;
+		}
+		
+		private static int bit(int shift, int keyHash) {
+			return 1 << ((keyHash >>> shift) & MASK);
+		}
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+		
+		@Override
+		Object find(int shift, int keyHash, Object key) {
+			int bit = bit(shift, keyHash);
+			if((bitmap & bit)==0) {
+				return NOT_FOUND;
+			}
+			int i = 2 * index(bit);
+			Object slotKey = array[i];
+			if(slotKey==null) {
+				return ((Node) array[i + 1]).find(shift + BITS, keyHash, key);
+			}
+			return key.equals(slotKey)?array[i + 1]:NOT_FOUND;
+		}
+		
+		@Override
+		Node with(int shift, int keyHash, Object key, Object value, Change change) {
+			int bit = bit(shift, keyHash);
+			int i = 2 * index(bit);
+			if((bitmap & bit)==0) {
+				Object[] newArray = new Object[array.length + 2];
+				System.arraycopy(array, 0, newArray, 0, i);
+				newArray[i] = key;
+				newArray[i + 1] = value;
+				System.arraycopy(array, i, newArray, i + 2, array.length - i);
+				change.added = true;
+				return new BitmapNode(bitmap | bit, newArray);
+			}
+			Object slotKey = array[i];
+			Object slotValue = array[i + 1];
+			if(slotKey==null) {
+				Node child = (Node) slotValue;
+				Node newChild = child.with(shift + BITS, keyHash, key, value, change);
+				return newChild==child?this:copyWith(i + 1, newChild);
+			}
+			if(key.equals(slotKey)) {
+				if(slotValue==value) {
+					return this;
+				}
+				change.oldValue = slotValue;
+				return copyWith(i + 1, value);
+			}
+			change.added = true;
+			Node child = pair(shift + BITS, slotKey, slotValue, keyHash, key, value);
+			Object[] newArray = array.clone();
+			newArray[i] = null;
+			newArray[i + 1] = child;
+			return new BitmapNode(bitmap, newArray);
+		}
+		
+		private static Node pair(int shift, Object key1, Object value1, int keyHash2, Object key2, Object value2) {
+			int keyHash1 = key1.hashCode();
+			if(keyHash1==keyHash2) {
+				return new CollisionNode(keyHash1, new Object[] {key1, value1, key2, value2});
+			}
+			Change change = new Change();
+			return EMPTY.with(shift, keyHash1, key1, value1, change).with(shift, keyHash2, key2, value2, change);
+		}
+		
+		private BitmapNode copyWith(int i, Object value) {
+			Object[] newArray = array.clone();
+			newArray[i] = value;
+			return new BitmapNode(bitmap, newArray);
+		}
+		
+		@Override
+		Node without(int shift, int keyHash, Object key, Change change) {
+			int bit = bit(shift, keyHash);
+			if((bitmap & bit)==0) {
+				return this;
+			}
+			int i = 2 * index(bit);
+			Object slotKey = array[i];
+			if(slotKey==null) {
+				Node child = (Node) array[i + 1];
+				Node newChild = child.without(shift + BITS, keyHash, key, change);
+				if(newChild==child) {
+					return this;
+				}
+				if(newChild!=null) {
+					return copyWith(i + 1, newChild);
+				}
+			}else if(key.equals(slotKey)) {
+				change.removed = true;
+				change.oldValue = array[i + 1];
+			}else {
+				return this;
+			}
+			if(bitmap==bit) {
+				return null;
+			}
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, i);
+			System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+			return new BitmapNode(bitmap ^ bit, newArray);
+		}
+	}
+	
+	/**
+	 * Keys with the same full hash code.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int keyHash;
+		
+		CollisionNode(int keyHash, Object[] array) {
+			super(array);
+			this.keyHash = keyHash;
+		}
+		
+		private int indexOf(Object key) {
+			for(int i=0;i<array.length;i+=2) {
+				if(key.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		@Override
+		Object find(int shift, int keyHash, Object key) {
+			int i = keyHash==this.keyHash?indexOf(key):-1;
+			return i<0?NOT_FOUND:array[i + 1];
+		}
+		
+		@Override
+		Node with(int shift, int keyHash, Object key, Object value, Change change) {
+			if(keyHash!=this.keyHash) {
+				//Nest this node under a bitmap node, where the new key can branch off
+				return new BitmapNode(BitmapNode.bit(shift, this.keyHash), new Object[] {null, this}).with(shift, keyHash, key, value, change);
+			}
+			int i = indexOf(key);
+			if(i>=0) {
+				if(array[i + 1]==value) {
+					return this;
+				}
+				change.oldValue = array[i + 1];
+				Object[] newArray = array.clone();
+				newArray[i + 1] = value;
+				return new CollisionNode(keyHash, newArray);
+			}
+			change.added = true;
+			Object[] newArray = new Object[array.length + 2];
+			System.arraycopy(array, 0, newArray, 0, array.length);
+			newArray[array.length] = key;
+			newArray[array.length + 1] = value;
+			return new CollisionNode(keyHash, newArray);
+		}
+		
+		@Override
+		Node without(int shift, int keyHash, Object key, Change change) {
+			int i = keyHash==this.keyHash?indexOf(key):-1;
+			if(i<0) {
+				return this;
+			}
+			change.removed = true;
+			change.oldValue = array[i + 1];
+			if(array.length==2) {
+				return null;
+			}
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, i);
+			System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+			return new CollisionNode(keyHash, newArray);
+		}
+	}
+	
+	/**
+	 * Depth first, with a stack of node arrays. The trie is at most 7 bitmap levels deep, plus a collision node.
+	 */
+	private static final class EntryIterator<K,V> implements Iterator<Map.Entry<K,V>> {
+		private final Object[][] arrays = new Object[8][];
+		private final int[] positions = new int[8];
+		private int depth = -1;
+		private Map.Entry<K,V> next = null;
+		
+		EntryIterator(Node root) {
+			if(root!=null) {
+				arrays[++depth] = root.array;
+			}
+			advance();
+		}
+		
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while(depth>=0) {
+				Object[] array = arrays[depth];
+				int position = positions[depth];
+				if(position>=array.length) {
+					positions[depth--] = 0;
+					continue;
+				}
+				positions[depth] = position + 2;
+				Object key = array[position];
+				if(key==null) {
+					arrays[++depth] = ((Node) array[position + 1]).array;
+				}else {
+					next = new AbstractMap.SimpleImmutableEntry<>((K) key, (V) array[position + 1]);
+					return;
+				}
+			}
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return next!=null;
+		}
+		@Override
+		public Map.Entry<K,V> next() {
+			if(next==null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<K,V> entry = next;
+			advance();
+			return entry;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.progressit.progressive.collections;
+
+/**
+ * An immutable collection which shares structure between versions, for use in component data.
+ * <p>Every edit returns a new version, which re-uses all the nodes the edit did not touch. The hash code is kept up to date with each edit, 
+ * so <code>hashCode</code> is O(1). <code>equals</code> is O(1) for the same version, and for versions with a different size or hash code.
+ * Otherwise it only walks the parts of the two versions which are not shared.</p>
+ * <p>The framework's change detection recognises these, and compares their (cached) hash codes before <code>equals</code>, in every mode.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public interface PPersistentCollection {
+	int size();
+}
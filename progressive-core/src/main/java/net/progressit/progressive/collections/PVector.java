@@ -0,0 +1,376 @@
+package net.progressit.progressive.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A persistent (immutable, structurally shared) vector: a 32-way trie of the elements, with the last (up to) 32 elements kept in a tail array.
+ * <p><code>get</code>, <code>with</code> and <code>dropLast</code> are O(log32 n), which is at most 7 levels for any int size. 
+ * <code>append</code> is amortised O(1), as it usually only copies the tail. <code>insert</code> and <code>without</code> rebuild the vector, in O(n).</p>
+ * <p>It is a read-only <code>java.util.List</code> (the <code>List</code> mutators throw), and equal to any list with the same elements. 
+ * The <code>List</code> hash code is updated with each edit rather than recomputed. See <code>PPersistentCollection</code>.</p>
+ * 
+ * @author theodore.r
+ *
+ * @param <E>
+ */
+public final class PVector<E> extends AbstractList<E> implements PPersistentCollection, RandomAccess {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	/**
+	 * Inverse of 31, modulo 2^32, to take the last element out of the <code>List</code> hash code.
+	 */
+	private static final int INVERSE_31 = 0xbdef7bdf;
+	
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+	private static final PVector<?> EMPTY = new PVector<>(0, BITS, EMPTY_NODE, new Object[0], 1);
+	
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	private final Object[] tail;
+	private final int hash;
+	
+	private PVector(int size, int shift, Object[] root, Object[] tail, int hash) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+		this.hash = hash;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <E> PVector<E> empty() {
+		return (PVector<E>) EMPTY;
+	}
+	@SafeVarargs
+	public static <E> PVector<E> of(E... elements) {
+		return fromArray(Arrays.copyOf(elements, elements.length, Object[].class));
+	}
+	@SuppressWarnings("unchecked")
+	public static <E> PVector<E> from(Collection<? extends E> elements) {
+		if(elements instanceof PVector) {
+			return (PVector<E>) elements;
+		}
+		return fromArray(elements.toArray());
+	}
+	
+	/**
+	 * Builds the trie bottom up, in O(n). The array is not copied.
+	 */
+	private static <E> PVector<E> fromArray(Object[] elements) {
+		int size = elements.length;
+		if(size==0) {
+			return empty();
+		}
+		int hash = 1;
+		for(Object element:elements) {
+			hash = 31 * hash + Objects.hashCode(element);
+		}
+		int tailOffset = tailOffset(size);
+		Object[] tail = Arrays.copyOfRange(elements, tailOffset, size);
+		Object[] root = EMPTY_NODE;
+		int shift = BITS;
+		if(tailOffset>0) {
+			Object[] nodes = new Object[tailOffset >>> BITS];
+			for(int i=0;i<nodes.length;i++) {
+				nodes[i] = Arrays.copyOfRange(elements, i << BITS, (i + 1) << BITS);
+			}
+			while(nodes.length>WIDTH) {
+				Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+				for(int i=0;i<parents.length;i++) {
+					Object[] parent = new Object[WIDTH];
+					System.arraycopy(nodes, i << BITS, parent, 0, Math.min(WIDTH, nodes.length - (i << BITS)));
+					parents[i] = parent;
+				}
+				nodes = parents;
+				shift += BITS;
+			}
+			root = Arrays.copyOf(nodes, WIDTH);
+		}
+		return new PVector<>(size, shift, root, tail, hash);
+	}
+	
+	private static int tailOffset(int size) {
+		return size<WIDTH?0:((size - 1) >>> BITS) << BITS;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		return (E) leafFor(checkIndex(index))[index & MASK];
+	}
+	
+	private int checkIndex(int index) {
+		if(index<0 || index>=size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return index;
+	}
+	
+	private Object[] leafFor(int index) {
+		if(index>=tailOffset(size)) {
+			return tail;
+		}
+		Object[] node = root;
+		for(int level=shift;level>0;level-=BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+	
+	/**
+	 * A new version with the element added at the end.
+	 */
+	public PVector<E> append(E element) {
+		int newHash = 31 * hash + Objects.hashCode(element);
+		if(size - tailOffset(size)<WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = element;
+			return new PVector<>(size + 1, shift, root, newTail, newHash);
+		}
+		//Tail is full: push it into the trie
+		Object[] newRoot;
+		int newShift = shift;
+		if((size >>> BITS)>(1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		}else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PVector<>(size + 1, newShift, newRoot, new Object[] {element}, newHash);
+	}
+	
+	private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+		int subIndex = ((size - 1) >>> level) & MASK;
+		Object[] node = parent.clone();
+		Object[] child;
+		if(level==BITS) {
+			child = tailNode;
+		}else {
+			Object[] oldChild = (Object[]) parent[subIndex];
+			child = oldChild!=null?pushTail(level - BITS, oldChild, tailNode):newPath(level - BITS, tailNode);
+		}
+		node[subIndex] = child;
+		return node;
+	}
+	
+	private static Object[] newPath(int level, Object[] node) {
+		if(level==0) {
+			return node;
+		}
+		Object[] path = new Object[WIDTH];
+		path[0] = newPath(level - BITS, node);
+		return path;
+	}
+	
+	/**
+	 * A new version with the element at the index replaced. Returns this if the very same element is already there.
+	 */
+	public PVector<E> with(int index, E element) {
+		Object old = leafFor(checkIndex(index))[index & MASK];
+		if(old==element) {
+			return this;
+		}
+		int newHash = hash + power31(size - 1 - index) * (Objects.hashCode(element) - Objects.hashCode(old));
+		if(index>=tailOffset(size)) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = element;
+			return new PVector<>(size, shift, root, newTail, newHash);
+		}
+		return new PVector<>(size, shift, assoc(shift, root, index, element), tail, newHash);
+	}
+	
+	private static Object[] assoc(int level, Object[] node, int index, Object element) {
+		Object[] copy = node.clone();
+		if(level==0) {
+			copy[index & MASK] = element;
+		}else {
+			int subIndex = (index >>> level) & MASK;
+			copy[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, element);
+		}
+		return copy;
+	}
+	
+	/**
+	 * A new version without the last element.
+	 */
+	public PVector<E> dropLast() {
+		if(size==0) {
+			throw new NoSuchElementException("Empty vector");
+		}
+		if(size==1) {
+			return empty();
+		}
+		int newHash = (hash - Objects.hashCode(tail[tail.length - 1])) * INVERSE_31;
+		if(size - tailOffset(size)>1) {
+			return new PVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1), newHash);
+		}
+		//Tail becomes empty: the last leaf of the trie becomes the tail
+		Object[] newTail = leafFor(size - 2);
+		Object[] newRoot = popTail(shift, root);
+		int newShift = shift;
+		if(newRoot==null) {
+			newRoot = EMPTY_NODE;
+		}
+		if(shift>BITS && newRoot[1]==null) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+		return new PVector<>(size - 1, newShift, newRoot, newTail, newHash);
+	}
+	
+	private Object[] popTail(int level, Object[] node) {
+		int subIndex = ((size - 2) >>> level) & MASK;
+		if(level>BITS) {
+			Object[] newChild = popTail(level - BITS, (Object[]) node[subIndex]);
+			if(newChild==null && subIndex==0) {
+				return null;
+			}
+			Object[] copy = node.clone();
+			copy[subIndex] = newChild;
+			return copy;
+		}else if(subIndex==0) {
+			return null;
+		}else {
+			Object[] copy = node.clone();
+			copy[subIndex] = null;
+			return copy;
+		}
+	}
+	
+	/**
+	 * A new version with the element inserted at the index (size appends). O(n), except at the end.
+	 */
+	public PVector<E> insert(int index, E element) {
+		if(index==size) {
+			return append(element);
+		}
+		checkIndex(index);
+		Object[] elements = new Object[size + 1];
+		copyTo(elements, 0, index, 0);
+		elements[index] = element;
+		copyTo(elements, index, size, index + 1);
+		return fromArray(elements);
+	}
+	
+	/**
+	 * A new version without the element at the index. O(n), except at the end.
+	 */
+	public PVector<E> without(int index) {
+		if(checkIndex(index)==size - 1) {
+			return dropLast();
+		}
+		Object[] elements = new Object[size - 1];
+		copyTo(elements, 0, index, 0);
+		copyTo(elements, index + 1, size, index);
+		return fromArray(elements);
+	}
+	
+	private void copyTo(Object[] target, int from, int to, int targetFrom) {
+		for(int i=from;i<to;) {
+			Object[] leaf = leafFor(i);
+			int count = Math.min(WIDTH - (i & MASK), to - i);
+			System.arraycopy(leaf, i & MASK, target, targetFrom + (i - from), count);
+			i += count;
+		}
+	}
+	
+	private static int power31(int exponent) {
+		int result = 1;
+		int base = 31;
+		while(exponent>0) {
+			if((exponent & 1)!=0) {
+				result *= base;
+			}
+			base *= base;
+			exponent >>>= 1;
+		}
+		return result;
+	}
+	
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int index = 0;
+			private Object[] leaf = null;
+			
+			@Override
+			public boolean hasNext() {
+				return index<size;
+			}
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if(index>=size) {
+					throw new NoSuchElementException();
+				}
+				if(leaf==null || (index & MASK)==0) {
+					leaf = leafFor(index);
+				}
+				return (E) leaf[index++ & MASK];
+			}
+		};
+	}
+	
+	@Override
+	public Object[] toArray() {
+		Object[] elements = new Object[size];
+		copyTo(elements, 0, size, 0);
+		return elements;
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if(obj==this) {
+			return true;
+		}
+		if(obj instanceof PVector) {
+			PVector<?> other = (PVector<?>) obj;
+			if(size!=other.size || hash!=other.hash) {
+				return false;
+			}
+			//Same size, so same shape: only walk the nodes which are not shared.
+			return sameNodes(shift, root, other.root) && (tail==other.tail || Arrays.equals(tail, other.tail));
+		}
+		return obj instanceof List && super.equals(obj);
+	}
+	
+	private static boolean sameNodes(int level, Object[] node, Object[] otherNode) {
+		if(node==otherNode) {
+			return true;
+		}
+		if(node==null || otherNode==null) {
+			return false;
+		}
+		for(int i=0;i<WIDTH;i++) {
+			if(level==0) {
+				if(!Objects.equals(node[i], otherNode[i])) {
+					return false;
+				}
+			}else if(!sameNodes(level - BITS, (Object[]) node[i], (Object[]) otherNode[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
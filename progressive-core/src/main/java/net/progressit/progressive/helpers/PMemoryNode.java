@@ -0,0 +1,136 @@
+package net.progressit.progressive.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.progressit.progressive.PBasePlacers;
+
+/**
+ * A light weight in-memory UI node, for rendering component trees headless (see <code>PHeadlessExecutor</code>).
+ * <p>It belongs to no toolkit. Its children can be nodes of any type (other memory nodes, or the toolkit's own), kept in a plain list,
+ * so there is no tree lock, no layout and no painting. The placers from <code>newPlacers</code> (or the toolkit module's <code>PComponentHelper.newMemoryPlacer</code>)
+ * record into this list, and count the operations, so that tests can check both the resulting tree and how much work the reconciliation did.</p>
+ * <p>Components render into the node's properties instead of real widgets. Where <code>getUiComponent</code> has to return the toolkit's node type,
+ * the toolkit module has a wrapper (like the Swing module's <code>PMemoryComponent</code>).</p>
+ *
+ * @author theodore.r
+ *
+ */
+public class PMemoryNode {
+	private final String type;
+	private final List<Object> children = new ArrayList<>();
+	private final Map<String, Object> properties = new HashMap<>();
+	private PMemoryNode parent = null;
+	
+	private int addCount = 0;
+	private int insertCount = 0;
+	private int removeCount = 0;
+	
+	public PMemoryNode(String type) {
+		this.type = type;
+	}
+	
+	/**
+	 * Placers which record into this node, for components of any node type.
+	 */
+	public <N> PBasePlacers<N> newPlacers() {
+		return new PBasePlacers<N>(this::addChild, this::removeChild, this::insertChild);
+	}
+	
+	public String getType() {
+		return type;
+	}
+	public List<Object> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+	public PMemoryNode getParent() {
+		return parent;
+	}
+	
+	public Object getProperty(String key) {
+		return properties.get(key);
+	}
+	public void setProperty(String key, Object value) {
+		properties.put(key, value);
+	}
+	
+	public void addChild(Object child) {
+		addCount++;
+		children.remove(child);
+		children.add(child);
+		adopt(child);
+	}
+	/**
+	 * Insert before the given sibling, or at the end if there is no such sibling.
+	 */
+	public void insertChild(Object child, Object before) {
+		insertCount++;
+		children.remove(child);
+		int index = before==null?-1:children.indexOf(before);
+		children.add(index<0?children.size():index, child);
+		adopt(child);
+	}
+	public void removeChild(Object child) {
+		removeCount++;
+		if(children.remove(child) && child instanceof PMemoryNode) {
+			((PMemoryNode) child).parent = null;
+		}
+	}
+	
+	private void adopt(Object child) {
+		if(child instanceof PMemoryNode) {
+			((PMemoryNode) child).parent = this;
+		}
+	}
+	
+	public int getAddCount() {
+		return addCount;
+	}
+	public int getInsertCount() {
+		return insertCount;
+	}
+	public int getRemoveCount() {
+		return removeCount;
+	}
+	public void resetCounts() {
+		addCount = 0;
+		insertCount = 0;
+		removeCount = 0;
+	}
+	
+	/**
+	 * The subtree as indented text: type and properties per line. Handy for assertions and for snapshots.
+	 */
+	public String dump() {
+		StringBuilder sb = new StringBuilder();
+		dump(this, 0, sb);
+		return sb.toString();
+	}
+	private static void dump(Object node, int level, StringBuilder sb) {
+		for(int i=0;i<level;i++) {
+			sb.append("  ");
+		}
+		if(node instanceof PMemoryNode) {
+			PMemoryNode memoryNode = (PMemoryNode) node;
+			sb.append(memoryNode.type);
+			if(!memoryNode.properties.isEmpty()) {
+				sb.append(' ').append(new TreeMap<>(memoryNode.properties));
+			}
+			sb.append('\n');
+			for(Object child:memoryNode.children) {
+				dump(child, level + 1, sb);
+			}
+		}else {
+			sb.append(node.getClass().getSimpleName()).append('\n');
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "PMemoryNode[" + type + ", " + children.size() + " children]";
+	}
+}
@@ -0,0 +1,160 @@
+package net.progressit.progressive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import net.progressit.progressive.helpers.PMemoryNode;
+import net.progressit.progressive.helpers.PSimpleLifecycleHandler;
+
+/**
+ * A test component rendered into a <code>PMemoryNode</code>, whose data is simply its props.
+ *
+ * @author theodore.r
+ *
+ * @param <T> props and data
+ */
+abstract class MemoryComponent<T> extends PBaseComponent<PMemoryNode, T, T> {
+	final PMemoryNode node;
+	final MemoryHost host;
+	
+	MemoryComponent(PBasePlacers<PMemoryNode> placers, MemoryHost host, String type) {
+		super(placers, null);
+		this.node = new PMemoryNode(type);
+		this.host = host;
+	}
+	
+	@Override
+	protected PMemoryNode getUiComponent() {
+		return node;
+	}
+	@Override
+	protected PHostAdapter<PMemoryNode> getHost() {
+		return host;
+	}
+	@Override
+	protected PLifecycleHandler getLifecycleHandler() {
+		return new PSimpleLifecycleHandler() {
+			@Override
+			public void prePlacement() {
+				host.log.add("prePlacement " + node.getType());
+			}
+			@Override
+			public void postProps() {
+				setData(getProps());
+			}
+		};
+	}
+	@Override
+	protected List<Class<?>> declareEmittedEvents() {
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * The text of each child node, in order.
+	 */
+	static List<Object> texts(PMemoryNode node) {
+		List<Object> texts = new ArrayList<>();
+		for(Object child:node.getChildren()) {
+			texts.add(((PMemoryNode) child).getProperty("text"));
+		}
+		return texts;
+	}
+	
+	/**
+	 * Renders its props as the "text" property.
+	 */
+	static class Label extends MemoryComponent<String> {
+		Label(PBasePlacers<PMemoryNode> placers, MemoryHost host) {
+			this(placers, host, "label");
+		}
+		Label(PBasePlacers<PMemoryNode> placers, MemoryHost host, String type) {
+			super(placers, host, type);
+		}
+		@Override
+		protected PPartition partitionForSelf(String data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected PPartition partitionForChildren(String data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected void renderSelf(String data) {
+			host.log.add(node.getType() + " " + data);
+			node.setProperty("text", data);
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(String data) {
+			return new PChildrenPlan();
+		}
+	}
+	
+	/**
+	 * A label of another class, so that planning it in place of a <code>Label</code> changes the child's class.
+	 */
+	static class Badge extends Label {
+		Badge(PBasePlacers<PMemoryNode> placers, MemoryHost host) {
+			super(placers, host, "badge");
+		}
+	}
+	
+	/**
+	 * Plans one child per item: a <code>Badge</code> for items starting with '#', else a <code>Label</code>.
+	 * Keyed by the item without the '#', so that adding or dropping it changes the class of the child with that key.
+	 * When keyed, each item keeps its component, so that a test can get at it with <code>child</code>.
+	 */
+	static class ItemList extends MemoryComponent<List<String>> {
+		final PBasePlacers<PMemoryNode> childPlacers = node.newPlacers();
+		private final Map<String, Label> children = new HashMap<>();
+		boolean keyed = true;
+		List<String> deferred = Collections.emptyList();
+		boolean suspend = false;
+		
+		ItemList(PBasePlacers<PMemoryNode> placers, MemoryHost host) {
+			super(placers, host, "list");
+		}
+		@Override
+		protected boolean suspendWhenHidden() {
+			return suspend;
+		}
+		@Override
+		protected PPartition partitionForSelf(List<String> data) {
+			return PPartition.empty();
+		}
+		@Override
+		protected PPartition partitionForChildren(List<String> data) {
+			return PPartition.of(data);
+		}
+		@Override
+		protected void renderSelf(List<String> data) {
+		}
+		@Override
+		protected PChildrenPlan renderChildrenPlan(List<String> data) {
+			host.log.add("plan " + data);
+			PChildrenPlan plan = new PChildrenPlan();
+			for(String item:data) {
+				plan.addChildPlan(PChildPlan.builder()
+						.component(keyed?children.computeIfAbsent(item, this::newChild):newChild(item))
+						.props(item)
+						.key(keyed?item.replace("#", ""):null)
+						.deferred(deferred.contains(item))
+						.listener(Optional.empty())
+						.build());
+			}
+			return plan;
+		}
+		PBasePlacers<PMemoryNode> placersFor(String item) {
+			return childPlacers;
+		}
+		Label child(String item) {
+			return children.get(item);
+		}
+		private Label newChild(String item) {
+			return item.startsWith("#")?new Badge(placersFor(item), host):new Label(placersFor(item), host);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package net.progressit.progressive;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import net.progressit.progressive.helpers.PMemoryNode;
+
+/**
+ * Host of the in-memory test components (see <code>MemoryComponent</code>). They run on a <code>PHeadlessExecutor</code>, so only hiding is modelled here:
+ * a node is shown unless it, or a node above it, is hidden.
+ * <p>It also keeps a log of the renders, in order, for the tests to check.</p>
+ *
+ * @author theodore.r
+ *
+ */
+final class MemoryHost implements PHostAdapter<PMemoryNode> {
+	private final Set<PMemoryNode> hidden = new HashSet<>();
+	private final List<Watch> watches = new ArrayList<>();
+	final List<String> log = new ArrayList<>();
+	
+	@Override
+	public boolean isUiThread() {
+		return false;
+	}
+	@Override
+	public String getUiThreadName() {
+		return "a headless executor";
+	}
+	@Override
+	public void invokeLater(Runnable task) {
+		throw new UnsupportedOperationException("Memory components run on a headless executor");
+	}
+	
+	@Override
+	public ShownWatch watchShown(PMemoryNode uiComponent, Consumer<Boolean> listener) {
+		Watch watch = new Watch(uiComponent, listener);
+		watches.add(watch);
+		return watch;
+	}
+	
+	void setHidden(PMemoryNode node, boolean hide) {
+		if(hide) {
+			hidden.add(node);
+		}else {
+			hidden.remove(node);
+		}
+		for(Watch watch:new ArrayList<>(watches)) {
+			watch.update();
+		}
+	}
+	
+	int getWatchCount() {
+		return watches.size();
+	}
+	
+	private boolean isShown(PMemoryNode node) {
+		for(PMemoryNode n=node;n!=null;n=n.getParent()) {
+			if(hidden.contains(n)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private final class Watch implements ShownWatch {
+		private final PMemoryNode node;
+		private final Consumer<Boolean> listener;
+		private boolean shown;
+		
+		private Watch(PMemoryNode node, Consumer<Boolean> listener) {
+			this.node = node;
+			this.listener = listener;
+			this.shown = MemoryHost.this.isShown(node);
+		}
+		private void update() {
+			boolean nowShown = MemoryHost.this.isShown(node);
+			if(nowShown!=shown) {
+				shown = nowShown;
+				listener.accept(nowShown);
+			}
+		}
+		@Override
+		public boolean isShown() {
+			return shown;
+		}
+		@Override
+		public void unwatch() {
+			watches.remove(this);
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package net.progressit.progressive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.progressit.progressive.MemoryComponent.ItemList;
+import net.progressit.progressive.helpers.PMemoryNode;
+
+/**
+ * Keyed and positional reconciliation of a children plan, on in-memory nodes.
+ *
+ * @author theodore.r
+ *
+ */
+public class PChildrenDiffTest {
+	private final PHeadlessExecutor executor = new PHeadlessExecutor();
+	private final MemoryHost host = new MemoryHost();
+	private final PMemoryNode root = new PMemoryNode("root");
+	private ItemList list;
+	
+	@Test
+	public void keyedInsertPlacesOnlyTheNewChildren() {
+		place(true, "a", "b", "c");
+		List<Object> before = nodes();
+		render("x", "a", "b", "c", "y");
+		
+		assertEquals(Arrays.asList("x", "a", "b", "c", "y"), texts());
+		assertEquals(before, nodes().subList(1, 4));
+		assertEquals(2, list.node.getAddCount() + list.node.getInsertCount());
+		assertEquals(0, list.node.getRemoveCount());
+		assertEquals(Arrays.asList("plan [x, a, b, c, y]", "prePlacement label", "prePlacement label", "label x", "label y"), host.log);
+	}
+	
+	@Test
+	public void keyedRemoveRemovesOnlyTheOldChildren() {
+		place(true, "a", "b", "c", "d");
+		List<Object> before = nodes();
+		render("b", "d");
+		
+		assertEquals(Arrays.asList("b", "d"), texts());
+		assertEquals(Arrays.asList(before.get(1), before.get(3)), nodes());
+		assertEquals(2, list.node.getRemoveCount());
+		assertEquals(0, list.node.getAddCount() + list.node.getInsertCount());
+	}
+	
+	@Test
+	public void keyedMoveMovesOnlyTheChildrenOutOfOrder() {
+		place(true, "a", "b", "c", "d", "e");
+		List<Object> before = nodes();
+		render("e", "a", "b", "d", "c");
+		
+		assertEquals(Arrays.asList("e", "a", "b", "d", "c"), texts());
+		assertEquals(Arrays.asList(before.get(4), before.get(0), before.get(1), before.get(3), before.get(2)), nodes());
+		assertEquals(2, list.node.getRemoveCount()); //e, and one of c and d
+		assertEquals(2, list.node.getAddCount() + list.node.getInsertCount());
+		assertEquals(Arrays.asList("plan [e, a, b, d, c]"), host.log); //Moved, not rendered again
+	}
+	
+	@Test
+	public void keyedReverse() {
+		place(true, "a", "b", "c", "d");
+		List<Object> before = nodes();
+		render("d", "c", "b", "a");
+		
+		assertEquals(Arrays.asList("d", "c", "b", "a"), texts());
+		List<Object> reversed = new ArrayList<>(before);
+		Collections.reverse(reversed);
+		assertEquals(reversed, nodes());
+		assertEquals(3, list.node.getRemoveCount());
+	}
+	
+	@Test
+	public void keyedClassChangeRemountsTheChild() {
+		place(true, "a", "b", "c");
+		List<Object> before = nodes();
+		render("a", "#b", "c");
+		
+		assertEquals(Arrays.asList("a", "#b", "c"), texts());
+		assertSame(before.get(0), nodes().get(0));
+		assertNotSame(before.get(1), nodes().get(1));
+		assertSame(before.get(2), nodes().get(2));
+		assertEquals("badge", ((PMemoryNode) nodes().get(1)).getType());
+		assertEquals(1, list.node.getRemoveCount());
+	}
+	
+	@Test
+	public void keyedMoveAcrossTwoPlacers() {
+		PMemoryNode side = new PMemoryNode("side");
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host) {
+				private final PBasePlacers<PMemoryNode> sidePlacers = side.newPlacers();
+				
+				@Override
+				PBasePlacers<PMemoryNode> placersFor(String item) {
+					return Character.isUpperCase(item.charAt(0))?sidePlacers:childPlacers;
+				}
+			};
+			PBaseComponent.place(list, null, Arrays.asList("a", "B", "b", "C", "c", "A"));
+		});
+		render("c", "A", "b", "C", "a", "B");
+		assertEquals(Arrays.asList("c", "b", "a"), texts());
+		assertEquals(Arrays.asList("A", "C", "B"), MemoryComponent.texts(side));
+		
+		Random random = new Random(42);
+		List<String> items = Arrays.asList("a", "b", "c", "d", "e", "A", "B", "C", "D", "E");
+		for(int i=0;i<200;i++) {
+			List<String> order = new ArrayList<>(items);
+			Collections.shuffle(order, random);
+			order = order.subList(0, 1 + random.nextInt(order.size()));
+			render(order.toArray(new String[0]));
+			List<Object> lower = new ArrayList<>();
+			List<Object> upper = new ArrayList<>();
+			for(String item:order) {
+				(Character.isUpperCase(item.charAt(0))?upper:lower).add(item);
+			}
+			assertEquals(order.toString(), lower, texts());
+			assertEquals(order.toString(), upper, MemoryComponent.texts(side));
+		}
+	}
+	
+	@Test
+	public void positionalReusesByIndex() {
+		place(false, "a", "b");
+		List<Object> before = nodes();
+		render("a", "b", "c");
+		
+		assertEquals(Arrays.asList("a", "b", "c"), texts());
+		assertEquals(before, nodes().subList(0, 2));
+		assertEquals(1, list.node.getAddCount());
+		
+		host.log.clear();
+		render("x", "b", "c");
+		assertEquals(Arrays.asList("x", "b", "c"), texts());
+		assertSame(before.get(0), nodes().get(0)); //Same child, new props
+		assertEquals(Arrays.asList("plan [x, b, c]", "label x"), host.log);
+		
+		render("x");
+		assertEquals(Arrays.asList("x"), texts());
+		assertSame(before.get(0), nodes().get(0));
+		assertEquals(2, list.node.getRemoveCount());
+	}
+	
+	@Test
+	public void positionalClassChangeRemountsFromThere() {
+		place(false, "a", "b", "c");
+		List<Object> before = nodes();
+		render("a", "#b", "c");
+		
+		assertEquals(Arrays.asList("a", "#b", "c"), texts());
+		assertSame(before.get(0), nodes().get(0));
+		assertFalse(nodes().contains(before.get(1)));
+		assertFalse(nodes().contains(before.get(2)));
+		assertEquals(2, list.node.getRemoveCount());
+	}
+	
+	private void place(boolean keyed, String... items) {
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host);
+			list.keyed = keyed;
+			PBaseComponent.place(list, null, Arrays.asList(items));
+		});
+		list.node.resetCounts();
+		host.log.clear();
+	}
+	private void render(String... items) {
+		executor.run(()->list.setProps(Arrays.asList(items)));
+	}
+	private List<Object> texts() {
+		return MemoryComponent.texts(list.node);
+	}
+	private List<Object> nodes() {
+		return new ArrayList<>(list.node.getChildren());
+	}
+}
@@ -0,0 +1,82 @@
+package net.progressit.progressive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.progressit.progressive.MemoryComponent.ItemList;
+import net.progressit.progressive.helpers.PMemoryNode;
+
+/**
+ * Deferred children are placed when the UI is idle, or when a plan has them as not deferred, in their planned position.
+ *
+ * @author theodore.r
+ *
+ */
+public class PDeferredChildrenTest {
+	private final PHeadlessExecutor executor = new PHeadlessExecutor();
+	private final MemoryHost host = new MemoryHost();
+	private final PMemoryNode root = new PMemoryNode("root");
+	private ItemList list;
+	
+	@Test
+	public void keyedDeferredChildWaitsForIdle() {
+		place(true, "a", "b", "c", "d");
+		
+		assertEquals(Arrays.asList("a", "d"), texts());
+		assertFalse(host.log.contains("label b"));
+		assertFalse(host.log.contains("label c"));
+		
+		executor.runIdle();
+		assertEquals(Arrays.asList("a", "b", "c", "d"), texts());
+	}
+	
+	@Test
+	public void positionalDeferredChildWaitsForIdle() {
+		place(false, "a", "b", "c", "d");
+		
+		assertEquals(Arrays.asList("a", "d"), texts());
+		executor.runIdle();
+		assertEquals(Arrays.asList("a", "b", "c", "d"), texts());
+	}
+	
+	@Test
+	public void deferredChildIsPlacedWhenPlannedAsNotDeferred() {
+		place(true, "a", "b", "c", "d");
+		
+		list.deferred = Arrays.asList("c");
+		executor.run(()->list.setProps(Arrays.asList("a", "b", "c", "d", "e")));
+		assertEquals(Arrays.asList("a", "b", "d", "e"), texts()); //b in its place, without waiting
+		
+		executor.runIdle();
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), texts());
+	}
+	
+	@Test
+	public void deferredChildIsPlacedWhenListIsPlacedAgain() {
+		place(true, "a", "b", "c", "d");
+		executor.run(()->PBaseComponent.remove(list));
+		executor.runIdle(); //Removed, so nothing is placed
+		assertEquals(Arrays.asList("a", "d"), texts());
+		
+		executor.run(()->PBaseComponent.place(list, null, Arrays.asList("a", "b", "c", "d")));
+		executor.runIdle();
+		assertEquals(Arrays.asList("a", "b", "c", "d"), texts());
+	}
+	
+	private void place(boolean keyed, String... items) {
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host);
+			list.keyed = keyed;
+			list.deferred = Arrays.asList("b", "c");
+			PBaseComponent.place(list, null, Arrays.asList(items));
+		});
+	}
+	private List<Object> texts() {
+		return MemoryComponent.texts(list.node);
+	}
+}
@@ -0,0 +1,71 @@
+package net.progressit.progressive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.progressit.progressive.MemoryComponent.ItemList;
+import net.progressit.progressive.helpers.PMemoryNode;
+
+/**
+ * Coalesced, top-down rendering with a <code>PRenderScheduler</code>, on in-memory nodes.
+ *
+ * @author theodore.r
+ *
+ */
+public class PRenderSchedulerTest {
+	private final PHeadlessExecutor executor = new PHeadlessExecutor();
+	private final MemoryHost host = new MemoryHost();
+	private final PMemoryNode root = new PMemoryNode("root");
+	private final PRenderScheduler scheduler = new PRenderScheduler();
+	private ItemList list;
+	
+	@Before
+	public void setUp() {
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host);
+			list.setRenderScheduler(scheduler);
+			PBaseComponent.place(list, null, Arrays.asList("a", "b"));
+		});
+		host.log.clear();
+	}
+	
+	@Test
+	public void rendersOnceWithTheLatestData() {
+		executor.run(()->{
+			list.setProps(Arrays.asList("a"));
+			list.setProps(Arrays.asList("a", "b", "c"));
+			list.setProps(Arrays.asList("c", "a"));
+			assertTrue(host.log.isEmpty()); //Not until the flush
+			assertEquals(Arrays.asList("c", "a"), list.getData());
+		});
+		assertEquals(Arrays.asList("plan [c, a]", "prePlacement label", "label c"), host.log);
+		assertEquals(Arrays.asList("c", "a"), MemoryComponent.texts(list.node));
+	}
+	
+	@Test
+	public void flushesParentsFirst() {
+		executor.run(()->{
+			list.child("b").setProps("stale"); //Dirtied first, but below the list
+			list.setProps(Arrays.asList("a", "b", "c"));
+		});
+		//The list re-binds b to "b" before b is flushed, so "stale" is never rendered
+		assertEquals(Arrays.asList("plan [a, b, c]", "prePlacement label", "label c"), host.log);
+		assertEquals(Arrays.asList("a", "b", "c"), MemoryComponent.texts(list.node));
+	}
+	
+	@Test
+	public void flushSyncRendersNow() {
+		executor.run(()->{
+			list.setProps(Arrays.asList("b"));
+			scheduler.flushSync();
+			assertEquals(Arrays.asList("plan [b]"), host.log);
+		});
+		assertEquals(Arrays.asList("plan [b]"), host.log);
+		assertEquals(Arrays.asList("b"), MemoryComponent.texts(list.node));
+	}
+}
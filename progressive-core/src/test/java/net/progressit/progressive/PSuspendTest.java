@@ -0,0 +1,130 @@
+package net.progressit.progressive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.progressit.progressive.MemoryComponent.ItemList;
+import net.progressit.progressive.helpers.PMemoryNode;
+
+/**
+ * Components which suspend rendering while hidden keep the latest data, and catch up once when shown.
+ *
+ * @author theodore.r
+ *
+ */
+public class PSuspendTest {
+	private final PHeadlessExecutor executor = new PHeadlessExecutor();
+	private final MemoryHost host = new MemoryHost();
+	private final PMemoryNode root = new PMemoryNode("root");
+	private ItemList list;
+	
+	@Test
+	public void hiddenKeepsTheLatestDataAndCatchesUpOnce() {
+		place("a");
+		executor.run(()->host.setHidden(list.node, true));
+		render("a", "b");
+		render("a", "b", "c");
+		
+		assertTrue(host.log.isEmpty());
+		assertEquals(Arrays.asList("a"), texts());
+		executor.run(()->assertEquals(Arrays.asList("a", "b", "c"), list.getData()));
+		
+		executor.run(()->host.setHidden(list.node, false));
+		assertEquals(Arrays.asList("plan [a, b, c]", "prePlacement label", "prePlacement label", "label b", "label c"), host.log);
+		assertEquals(Arrays.asList("a", "b", "c"), texts());
+	}
+	
+	@Test
+	public void childOfHiddenCatchesUp() {
+		place("a", "b");
+		executor.run(()->host.setHidden(list.node, true));
+		executor.run(()->list.child("b").setProps("b1"));
+		executor.run(()->list.child("b").setProps("b2"));
+		assertTrue(host.log.isEmpty());
+		
+		executor.run(()->host.setHidden(list.node, false));
+		assertEquals(Arrays.asList("label b2"), host.log);
+		assertEquals(Arrays.asList("a", "b2"), texts());
+	}
+	
+	@Test
+	public void hiddenAboveSuspendsToo() {
+		place("a");
+		executor.run(()->host.setHidden(root, true));
+		render("b");
+		assertTrue(host.log.isEmpty());
+		
+		executor.run(()->host.setHidden(root, false));
+		assertEquals(Arrays.asList("b"), texts());
+	}
+	
+	@Test
+	public void hiddenWhenPlacedRendersWhenShown() {
+		host.setHidden(root, true);
+		place("a", "b");
+		assertTrue(texts().isEmpty());
+		
+		executor.run(()->host.setHidden(root, false));
+		assertEquals(Arrays.asList("a", "b"), texts());
+	}
+	
+	@Test
+	public void removedWhileHiddenCatchesUpWhenPlacedAgain() {
+		place("a");
+		executor.run(()->host.setHidden(list.node, true));
+		render("a", "b");
+		executor.run(()->PBaseComponent.remove(list));
+		assertEquals(0, host.getWatchCount());
+		assertEquals(Arrays.asList("a"), texts());
+		
+		host.setHidden(list.node, false);
+		executor.run(()->PBaseComponent.place(list, null, Arrays.asList("a", "b")));
+		assertEquals(1, host.getWatchCount());
+		assertEquals(Arrays.asList("plan [a, b]", "prePlacement label", "label b"), host.log.subList(1, host.log.size()));
+		assertEquals(Arrays.asList("a", "b"), texts());
+	}
+	
+	@Test
+	public void dataKeptWhileHiddenIsScheduledOnceOutOfTheHiddenTree() {
+		PRenderScheduler scheduler = new PRenderScheduler();
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host);
+			list.suspend = true;
+			list.setRenderScheduler(scheduler);
+			PBaseComponent.place(list, null, Arrays.asList("a", "b"));
+		});
+		executor.run(()->host.setHidden(list.node, true));
+		executor.run(()->list.child("b").setProps("b1")); //Kept for the catch-up, not scheduled
+		executor.run(()->PBaseComponent.remove(list)); //No longer hidden, so no catch-up will come
+		host.log.clear();
+		
+		executor.run(()->list.child("b").setProps("b2"));
+		assertEquals(Arrays.asList("label b2"), host.log);
+		assertEquals(Arrays.asList("a", "b2"), texts());
+		
+		host.setHidden(list.node, false);
+		executor.run(()->PBaseComponent.place(list, null, Arrays.asList("a", "b")));
+		assertEquals(Arrays.asList("label b2", "prePlacement list"), host.log); //Nothing left to catch up
+		assertEquals(Arrays.asList("a", "b2"), texts());
+	}
+	
+	private void place(String... items) {
+		executor.run(()->{
+			list = new ItemList(root.newPlacers(), host);
+			list.suspend = true;
+			PBaseComponent.place(list, null, Arrays.asList(items));
+		});
+		host.log.clear();
+	}
+	private void render(String... items) {
+		executor.run(()->list.setProps(Arrays.asList(items)));
+	}
+	private List<Object> texts() {
+		return MemoryComponent.texts(list.node);
+	}
+}
@@ -0,0 +1,74 @@
+package net.progressit.progressive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Trace calls with tracing switched off must not allocate (see <code>PTrace</code>).
+ *
+ * @author theodore.r
+ *
+ */
+public class PTraceTest {
+	private static final int CALLS = 100_000;
+	
+	private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private final Object arg1 = "arg1";
+	private final Object arg2 = "arg2";
+	
+	@Before
+	public void setUp() {
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		PTrace.disableAll();
+	}
+	@After
+	public void tearDown() {
+		PTrace.disableAll();
+	}
+	
+	@Test
+	public void traceOffAllocatesNothing() {
+		traceAll(); //Warm up, so that class loading and compilation are not measured
+		traceAll();
+		
+		long overhead = allocatedDelta(false); //Reading the counter may allocate itself, on some JDKs
+		long allocated = allocatedDelta(true);
+		assertEquals(0, allocated - overhead);
+	}
+	
+	@Test
+	public void traceOffForOtherClassAllocatesNothing() {
+		PTrace.enable(String.class);
+		traceAll();
+		traceAll();
+		
+		long overhead = allocatedDelta(false);
+		long allocated = allocatedDelta(true);
+		assertEquals(0, allocated - overhead);
+	}
+	
+	private long allocatedDelta(boolean trace) {
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		if(trace) traceAll();
+		return threads.getThreadAllocatedBytes(threadId) - before;
+	}
+	
+	private void traceAll() {
+		for(int i=0;i<CALLS;i++) {
+			PTrace.trace(this, "Message");
+			PTrace.trace(this, "Message ::", arg1);
+			PTrace.trace(this, "Message #", i); //Would box, past the Integer cache
+			PTrace.trace(this, "Message ::", arg1, arg2);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package net.progressit.progressive.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * <code>PHashMap</code> against <code>HashMap</code>, including keys with colliding hashes and removal down to empty.
+ *
+ * @author theodore.r
+ *
+ */
+public class PHashMapTest {
+	/**
+	 * A key with a chosen hash, so that distinct keys can share all (or some) of the hash bits.
+	 */
+	private static final class Key {
+		private final int id;
+		private final int hash;
+		
+		private Key(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).id==id;
+		}
+		@Override
+		public String toString() {
+			return "Key[" + id + ", " + Integer.toHexString(hash) + "]";
+		}
+	}
+	
+	@Test
+	public void fuzzAgainstHashMap() {
+		Random random = new Random(42);
+		for(int run=0;run<100;run++) {
+			Map<Key, Integer> expected = new HashMap<>();
+			PHashMap<Key, Integer> map = PHashMap.empty();
+			int keyCount = random.nextInt(3)==0?2000:40;
+			for(int op=0;op<1500;op++) {
+				Map<Key, Integer> before = new HashMap<>(expected);
+				PHashMap<Key, Integer> previous = map;
+				Key key = randomKey(random, keyCount);
+				if(random.nextInt(3)==0) {
+					expected.remove(key);
+					map = map.without(key);
+				}else {
+					Integer value = random.nextInt(10)==0?null:random.nextInt(5);
+					expected.put(key, value);
+					map = map.with(key, value);
+				}
+				if(op % 50==0 || op==1499) {
+					assertSameMap(expected, map);
+					assertSameMap(before, previous);
+				}else {
+					assertEquals(expected.size(), map.size());
+					assertEquals(expected.hashCode(), map.hashCode());
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void removeDownToEmpty() {
+		Random random = new Random(7);
+		Map<Key, Integer> expected = new HashMap<>();
+		PHashMap<Key, Integer> map = PHashMap.empty();
+		for(int i=0;i<3000;i++) {
+			Key key = randomKey(random, 5000);
+			expected.put(key, i);
+			map = map.with(key, i);
+		}
+		assertSameMap(expected, map);
+		for(Key key:expected.keySet()) {
+			map = map.without(key);
+		}
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.hashCode());
+		assertEquals(PHashMap.empty(), map);
+		assertEquals(new HashMap<>(), map);
+	}
+	
+	@Test
+	public void fullHashCollisions() {
+		Key a = new Key(1, 99);
+		Key b = new Key(2, 99);
+		Key c = new Key(3, 99);
+		PHashMap<Key, String> map = PHashMap.<Key, String>empty().with(a, "a").with(b, "b").with(c, "c");
+		assertEquals(3, map.size());
+		assertEquals("b", map.get(b));
+		PHashMap<Key, String> withoutB = map.without(b);
+		assertEquals(2, withoutB.size());
+		assertFalse(withoutB.containsKey(b));
+		assertEquals("a", withoutB.get(a));
+		assertEquals("c", withoutB.get(c));
+		assertEquals("b", map.get(b));
+		assertTrue(withoutB.without(a).without(c).isEmpty());
+	}
+	
+	@Test
+	public void nullValuesAreKept() {
+		PHashMap<String, String> map = PHashMap.of("a", null);
+		assertTrue(map.containsKey("a"));
+		assertNull(map.get("a"));
+		assertFalse(map.containsKey(null));
+	}
+	
+	@Test
+	public void unchangedEditsReturnSame() {
+		String value = "v";
+		PHashMap<String, String> map = PHashMap.of("a", value);
+		assertSame(map, map.with("a", value));
+		assertSame(map, map.without("b"));
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void nullKeyThrows() {
+		PHashMap.empty().with(null, "a");
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void mapMutatorsThrow() {
+		PHashMap.of("a", "b").put("c", "d");
+	}
+	
+	/**
+	 * Keys whose hashes often share low bits or the whole hash, so that collision nodes and deep paths are exercised.
+	 */
+	private static Key randomKey(Random random, int keyCount) {
+		int id = random.nextInt(keyCount);
+		switch(id % 4) {
+		case 0:
+			return new Key(id, id % 7); //Full collisions
+		case 1:
+			return new Key(id, (id & 0x1f) | (id << 20)); //Same low bits, split deep
+		default:
+			return new Key(id, id * 0x9e3779b9);
+		}
+	}
+	
+	private static void assertSameMap(Map<Key, Integer> expected, PHashMap<Key, Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertEquals(expected, new HashMap<>(actual)); //Iterator
+		for(Map.Entry<Key, Integer> entry:expected.entrySet()) {
+			assertTrue(actual.containsKey(entry.getKey()));
+			assertEquals(entry.getValue(), actual.get(entry.getKey()));
+		}
+		assertEquals(expected, PHashMap.from(expected));
+	}
+}
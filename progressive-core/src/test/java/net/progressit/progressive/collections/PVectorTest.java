@@ -0,0 +1,154 @@
+package net.progressit.progressive.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * <code>PVector</code> against <code>ArrayList</code>, across the tail and trie boundaries (32, 1024 and 32768 elements).
+ *
+ * @author theodore.r
+ *
+ */
+public class PVectorTest {
+	private static final int[] BOUNDARIES = {0, 1, 31, 32, 33, 63, 64, 65, 1023, 1024, 1025, 1056, 1057, 32768, 32800, 32801};
+	
+	@Test
+	public void appendAndDropLastAcrossBoundaries() {
+		List<Integer> expected = new ArrayList<>();
+		List<PVector<Integer>> versions = new ArrayList<>();
+		PVector<Integer> vector = PVector.empty();
+		int max = BOUNDARIES[BOUNDARIES.length - 1];
+		for(int i=0;i<=max;i++) {
+			if(isBoundary(i)) {
+				assertSameList(expected, vector);
+				versions.add(vector);
+			}
+			expected.add(i);
+			vector = vector.append(i);
+		}
+		for(int i=max;i>=0;i--) {
+			expected.remove(i);
+			vector = vector.dropLast();
+			if(isBoundary(i)) {
+				assertSameList(expected, vector);
+			}
+		}
+		assertTrue(vector.isEmpty());
+		assertEquals(PVector.empty(), vector);
+		//Older versions are untouched by the later edits
+		for(PVector<Integer> version:versions) {
+			for(int i=0;i<version.size();i++) {
+				assertEquals(Integer.valueOf(i), version.get(i));
+			}
+		}
+	}
+	
+	@Test
+	public void fromMatchesAppend() {
+		for(int size:BOUNDARIES) {
+			List<Integer> expected = new ArrayList<>();
+			PVector<Integer> appended = PVector.empty();
+			for(int i=0;i<size;i++) {
+				expected.add(i);
+				appended = appended.append(i);
+			}
+			PVector<Integer> built = PVector.from(expected);
+			assertSameList(expected, built);
+			assertEquals(appended, built);
+			assertEquals(appended.hashCode(), built.hashCode());
+		}
+	}
+	
+	@Test
+	public void fuzzAgainstArrayList() {
+		Random random = new Random(42);
+		for(int run=0;run<200;run++) {
+			List<Integer> expected = new ArrayList<>();
+			PVector<Integer> vector = PVector.empty();
+			int size = random.nextInt(3)==0?random.nextInt(2100):random.nextInt(70);
+			for(int i=0;i<size;i++) {
+				expected.add(i);
+				vector = vector.append(i);
+			}
+			for(int op=0;op<100;op++) {
+				List<Integer> before = new ArrayList<>(expected);
+				PVector<Integer> previous = vector;
+				Integer value = random.nextInt(10)==0?null:random.nextInt();
+				switch(random.nextInt(5)) {
+				case 0:
+					expected.add(value);
+					vector = vector.append(value);
+					break;
+				case 1:
+					if(expected.isEmpty()) continue;
+					int index = random.nextInt(expected.size());
+					expected.set(index, value);
+					vector = vector.with(index, value);
+					break;
+				case 2:
+					if(expected.isEmpty()) continue;
+					expected.remove(expected.size() - 1);
+					vector = vector.dropLast();
+					break;
+				case 3:
+					index = random.nextInt(expected.size() + 1);
+					expected.add(index, value);
+					vector = vector.insert(index, value);
+					break;
+				default:
+					if(expected.isEmpty()) continue;
+					index = random.nextInt(expected.size());
+					expected.remove(index);
+					vector = vector.without(index);
+				}
+				assertSameList(expected, vector);
+				assertSameList(before, previous);
+			}
+		}
+	}
+	
+	@Test
+	public void withSameElementReturnsSame() {
+		PVector<String> vector = PVector.of("a", "b", "c");
+		assertSame(vector, vector.with(1, "b"));
+	}
+	
+	@Test
+	public void ofCopiesTheArray() {
+		String[] elements = {"a", "b"};
+		PVector<String> vector = PVector.of(elements);
+		elements[0] = "z";
+		assertEquals(Arrays.asList("a", "b"), vector);
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void listMutatorsThrow() {
+		PVector.of("a").add("b");
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void getPastTheEndThrows() {
+		PVector.of("a").get(1);
+	}
+	
+	private static boolean isBoundary(int size) {
+		return Arrays.binarySearch(BOUNDARIES, size)>=0;
+	}
+	
+	private static void assertSameList(List<Integer> expected, List<Integer> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		assertEquals(expected, new ArrayList<>(actual)); //Iterator
+		assertEquals(expected, Arrays.asList(actual.toArray()));
+	}
+}
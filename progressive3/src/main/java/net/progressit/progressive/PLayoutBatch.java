@@ -0,0 +1,105 @@
+package net.progressit.progressive;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * Commit phase for layout. During a render pass (from the outermost <code>setData</code>, or a whole render scheduler flush), 
+ * the containers whose children changed are only collected. When the pass ends, each of them is invalidated (which just sets flags), 
+ * and then there is one <code>revalidate()</code> per validate root, and one repaint of the union of the changed areas per validate root.
+ * <p>So a props change which fans out through a deep tree lays out once, instead of once per container. 
+ * The counters show how many layout passes were saved this way. Only used on EDT.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+public final class PLayoutBatch {
+	private static int depth = 0;
+	private static final Set<JComponent> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	private static volatile long invalidationRequests = 0;
+	private static volatile long revalidations = 0;
+	
+	private PLayoutBatch() {
+	}
+	
+	/**
+	 * Containers which asked for layout after a children render.
+	 */
+	public static long getInvalidationRequests() {
+		return invalidationRequests;
+	}
+	/**
+	 * Revalidations actually issued (one per validate root per pass).
+	 */
+	public static long getRevalidations() {
+		return revalidations;
+	}
+	public static long getSavedLayoutPasses() {
+		return invalidationRequests - revalidations;
+	}
+	public static void resetCounters() {
+		invalidationRequests = 0;
+		revalidations = 0;
+	}
+	
+	static void begin() {
+		depth++;
+	}
+	
+	static void end() {
+		depth--;
+		if(depth==0 && !pending.isEmpty()) {
+			commit();
+		}
+	}
+	
+	/**
+	 * Called after the children of this UI component are re-rendered.
+	 */
+	static void add(JComponent uiComponent) {
+		invalidationRequests++;
+		pending.add(uiComponent);
+		if(depth==0) {
+			commit(); //Not within a pass.
+		}
+	}
+	
+	private static void commit() {
+		Map<Container, Rectangle> dirtyByRoot = new LinkedHashMap<>();
+		for(JComponent component:pending) {
+			component.invalidate();
+			Container root = validateRoot(component);
+			Rectangle dirty = SwingUtilities.convertRectangle(component, new Rectangle(0, 0, component.getWidth(), component.getHeight()), root);
+			Rectangle rootDirty = dirtyByRoot.get(root);
+			dirtyByRoot.put(root, rootDirty==null?dirty:rootDirty.union(dirty));
+		}
+		pending.clear();
+		for(Map.Entry<Container, Rectangle> entry:dirtyByRoot.entrySet()) {
+			Container root = entry.getKey();
+			Rectangle dirty = entry.getValue();
+			root.revalidate();
+			if(!dirty.isEmpty()) {
+				root.repaint(dirty.x, dirty.y, dirty.width, dirty.height);
+			}
+		}
+		revalidations += dirtyByRoot.size();
+	}
+	
+	private static Container validateRoot(Component component) {
+		Container root = component instanceof Container?(Container) component:component.getParent();
+		while(root.getParent()!=null && !root.isValidateRoot()) {
+			root = root.getParent();
+		}
+		return root;
+	}
+}
@@ -1,21 +1,31 @@
 package net.progressit.progressive;
 
+import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import javax.swing.JComponent;
 
-import lombok.Data;
-
 /**
  * Holds the UI placer and remover, usually provided by the parent to a PComponent.
  * PComponent just holds the reference to PPlacers, whereas the framework takes care of using the PPlacer.
  * Usually the child PComponent's JComponents are placed into the Parent PComponent's JComponent.
+ * <p>The optional <code>inserter</code> places a component before a given sibling (or at the end, if the sibling is null).
+ * It lets keyed children be moved into place instead of being re-appended.</p>
+ * <p>The optional bulk variants place, remove or insert a whole run of consecutive components in one call. See <code>PBasePlacers</code>.</p>
  * 
  * @author theodore.r
  *
  */
-@Data
-public class PPlacers{
-	final Consumer<JComponent> placer;
-	final Consumer<JComponent> remover;		
-}
\ No newline at end of file
+public class PPlacers extends PBasePlacers<JComponent>{
+	public PPlacers(Consumer<JComponent> placer, Consumer<JComponent> remover) {
+		super(placer, remover);
+	}
+	public PPlacers(Consumer<JComponent> placer, Consumer<JComponent> remover, BiConsumer<JComponent, JComponent> inserter) {
+		super(placer, remover, inserter);
+	}
+	public PPlacers(Consumer<JComponent> placer, Consumer<JComponent> remover, BiConsumer<JComponent, JComponent> inserter, 
+			Consumer<List<JComponent>> bulkPlacer, Consumer<List<JComponent>> bulkRemover, BiConsumer<List<JComponent>, JComponent> bulkInserter) {
+		super(placer, remover, inserter, bulkPlacer, bulkRemover, bulkInserter);
+	}
+}
@@ -0,0 +1,135 @@
+package net.progressit.progressive;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.JComponent;
+import javax.swing.JLayeredPane;
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Diagnostic mode which flashes a translucent overlay on the UI component of each PComponent, whenever the framework renders it (<code>renderSelf</code>).
+ * <p>The color shows how often the component renders: green for the occasional render, through yellow, to red at 10 or more renders a second.
+ * A component which goes red while typing elsewhere usually has a self partition which is too coarse.</p>
+ * <p>The overlay is a transparent component on a layer above the drag layer of the window's <code>JLayeredPane</code> (so an app's own glass pane is left alone).
+ * It has no listeners, so mouse events pass through to the components below.</p>
+ * <p>Off by default (unless the system property <code>progressive.highlight</code> is <code>true</code>). When off, the render path only reads a volatile flag.</p>
+ *
+ * @author theodore.r
+ *
+ */
+public final class PRenderHighlighter {
+	private static final Integer OVERLAY_LAYER = JLayeredPane.DRAG_LAYER + 1;
+	private static final long FLASH_NANOS = 600_000_000L;
+	private static final double RATE_DECAY_NANOS = 1_000_000_000d;
+	private static final double HOT_RATE = 10;
+
+	private static volatile boolean enabled = Boolean.getBoolean("progressive.highlight");
+
+	private PRenderHighlighter() {
+	}
+
+	public static void enable() {
+		enabled = true;
+	}
+	public static void disable() {
+		enabled = false;
+	}
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Called by the framework (on EDT) after a component renders.
+	 */
+	static void rendered(JComponent uiComponent) {
+		JRootPane rootPane = SwingUtilities.getRootPane(uiComponent);
+		if(rootPane==null) {
+			return; //Not showing yet.
+		}
+		JLayeredPane layeredPane = rootPane.getLayeredPane();
+		Overlay overlay = null;
+		for(Component component:layeredPane.getComponentsInLayer(OVERLAY_LAYER)) {
+			if(component instanceof Overlay) {
+				overlay = (Overlay) component;
+			}
+		}
+		if(overlay==null) {
+			overlay = new Overlay();
+			layeredPane.add(overlay, OVERLAY_LAYER);
+		}
+		overlay.setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+		overlay.flash(uiComponent);
+	}
+
+	/**
+	 * Renders per second, decayed over about a second.
+	 */
+	private static class Flash {
+		private long lastRender = 0;
+		private double rate = 0;
+
+		private void rendered(long now) {
+			rate = lastRender==0?1:rate * Math.exp(-(now - lastRender) / RATE_DECAY_NANOS) + 1;
+			lastRender = now;
+		}
+	}
+
+	private static class Overlay extends JComponent{
+		private static final long serialVersionUID = 1L;
+
+		private final Map<JComponent, Flash> flashes = new WeakHashMap<>();
+		private final Timer fadeTimer = new Timer(33, (e)->fade());
+
+		private Overlay() {
+			setOpaque(false);
+		}
+
+		private void flash(JComponent uiComponent) {
+			flashes.computeIfAbsent(uiComponent, (k)->new Flash()).rendered(System.nanoTime());
+			if(!fadeTimer.isRunning()) {
+				fadeTimer.start();
+			}
+			repaint();
+		}
+
+		private void fade() {
+			long now = System.nanoTime();
+			flashes.values().removeIf((flash)->now - flash.lastRender > FLASH_NANOS);
+			if(flashes.isEmpty() || !enabled) {
+				flashes.clear();
+				fadeTimer.stop();
+			}
+			repaint();
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			Graphics2D g2 = (Graphics2D) g.create();
+			long now = System.nanoTime();
+			for(Map.Entry<JComponent, Flash> entry:flashes.entrySet()) {
+				JComponent uiComponent = entry.getKey();
+				Flash flash = entry.getValue();
+				if(uiComponent==null || !uiComponent.isShowing() || uiComponent.getParent()==null) {
+					continue;
+				}
+				float life = 1f - Math.min(1f, (now - flash.lastRender) / (float) FLASH_NANOS);
+				float hue = (float) (0.33 * (1 - Math.min(1, (flash.rate - 1) / (HOT_RATE - 1)))); //Green to red
+				Color color = Color.getHSBColor(hue, 1f, 1f);
+				Rectangle bounds = SwingUtilities.convertRectangle(uiComponent.getParent(), uiComponent.getBounds(), this);
+				g2.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), (int) (90 * life)));
+				g2.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+				g2.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), (int) (220 * life)));
+				g2.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+			}
+			g2.dispose();
+		}
+	}
+}
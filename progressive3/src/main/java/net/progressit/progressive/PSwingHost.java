@@ -0,0 +1,112 @@
+package net.progressit.progressive;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Host adapter for Swing: the EDT is the UI thread, layout goes through <code>PLayoutBatch</code>, and renders are shown by <code>PRenderHighlighter</code> when it is on.
+ * <p>Idle tasks wait for the event queue to be empty (checked every few milliseconds), so that pending input and paint go first. 
+ * A queue which never empties (like during an animation) holds them back for half a second at most.</p>
+ * <p>A component is shown while it and its ancestors are visible (like a panel in the selected card of a <code>CardLayout</code>), 
+ * as re-checked on each showing, parent or displayability change of its hierarchy. Hierarchies which are not displayable fire no showing changes,
+ * so the state is re-checked when the window is made displayable.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+final class PSwingHost implements PHostAdapter<JComponent> {
+	static final PSwingHost INSTANCE = new PSwingHost();
+	
+	private static final int IDLE_POLL_MILLIS = 10;
+	private static final int IDLE_MAX_POLLS = 50;
+	
+	private PSwingHost() {
+	}
+	
+	@Override
+	public boolean isUiThread() {
+		return SwingUtilities.isEventDispatchThread();
+	}
+	@Override
+	public String getUiThreadName() {
+		return "EDT";
+	}
+	@Override
+	public void invokeLater(Runnable task) {
+		SwingUtilities.invokeLater(task);
+	}
+	
+	@Override
+	public void invokeWhenIdle(Runnable task) {
+		Timer timer = new Timer(IDLE_POLL_MILLIS, null);
+		int[] polls = {0};
+		timer.addActionListener((e)->{
+			EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+			if(queue.peekEvent()==null || ++polls[0]>=IDLE_MAX_POLLS) {
+				timer.stop();
+				task.run();
+			}
+		});
+		timer.start();
+	}
+	
+	@Override
+	public ShownWatch watchShown(JComponent uiComponent, Consumer<Boolean> listener) {
+		boolean[] shown = {isShown(uiComponent)};
+		HierarchyListener hierarchyListener = (e)->{
+			if((e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED | HierarchyEvent.DISPLAYABILITY_CHANGED))==0) {
+				return;
+			}
+			boolean nowShown = isShown(uiComponent);
+			if(nowShown!=shown[0]) {
+				shown[0] = nowShown;
+				listener.accept(nowShown);
+			}
+		};
+		uiComponent.addHierarchyListener(hierarchyListener);
+		return new ShownWatch() {
+			@Override
+			public boolean isShown() {
+				return shown[0];
+			}
+			@Override
+			public void unwatch() {
+				uiComponent.removeHierarchyListener(hierarchyListener);
+			}
+		};
+	}
+	private static boolean isShown(Component component) {
+		for(Component c=component;c!=null && !(c instanceof Window);c=c.getParent()) {
+			if(!c.isVisible()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public void beginRender() {
+		PLayoutBatch.begin();
+	}
+	@Override
+	public void endRender() {
+		PLayoutBatch.end();
+	}
+	@Override
+	public void childrenChanged(JComponent uiComponent) {
+		PLayoutBatch.add(uiComponent); //Laid out and repainted when the render pass ends
+	}
+	@Override
+	public void selfRendered(JComponent uiComponent) {
+		if(PRenderHighlighter.isEnabled()) PRenderHighlighter.rendered(uiComponent);
+	}
+}
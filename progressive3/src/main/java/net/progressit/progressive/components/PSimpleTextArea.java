@@ -6,7 +6,6 @@ import java.util.List;
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
-import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
@@ -50,11 +49,8 @@ public class PSimpleTextArea extends PLeafComponent<String, String>{
 					}
 					
 					private void postChange() {
-						//Needed because getText doesn't stabilise until all the remove/insert events have fired.
-						SwingUtilities.invokeLater(()->{
-							String text = textArea.getText();
-							post(new ValueEvent(text));
-						});
+						//getText doesn't stabilise until all the remove/insert events have fired. The event is conflated, so only the last (stable) value is delivered.
+						post(new ValueEvent(textArea.getText()));
 					}
 				});
 			}
@@ -81,5 +77,10 @@ public class PSimpleTextArea extends PLeafComponent<String, String>{
 	protected List<Class<?>> declareEmittedEvents() {
 		return Arrays.asList(ValueEvent.class);
 	}
+	
+	@Override
+	protected List<Class<?>> declareConflatedEvents() {
+		return Arrays.asList(ValueEvent.class);
+	}
 
 }
@@ -6,7 +6,6 @@ import java.util.List;
 
 import javax.swing.JComponent;
 import javax.swing.JTextField;
-import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
@@ -50,11 +49,8 @@ public class PSimpleTextField extends PLeafComponent<String, String>{
 				}
 				
 				private void postChange() {
-					//Needed because getText doesn't stabilise until all the remove/insert events have fired.
-					SwingUtilities.invokeLater(()->{
-						String text = textField.getText();
-						post(new TFValueEvent(text));
-					});
+					//getText doesn't stabilise until all the remove/insert events have fired. The event is conflated, so only the last (stable) value is delivered.
+					post(new TFValueEvent(textField.getText()));
 				}
 			});
 		}
@@ -89,5 +85,10 @@ public class PSimpleTextField extends PLeafComponent<String, String>{
 	protected List<Class<?>> declareEmittedEvents() {
 		return Arrays.asList(TFActionEvent.class, TFValueEvent.class);
 	}
+	
+	@Override
+	protected List<Class<?>> declareConflatedEvents() {
+		return Arrays.asList(TFValueEvent.class);
+	}
 
 }
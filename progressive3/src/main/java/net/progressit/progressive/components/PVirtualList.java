@@ -0,0 +1,229 @@
+package net.progressit.progressive.components;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+
+import com.google.common.eventbus.EventBus;
+
+import lombok.Builder;
+import lombok.Data;
+import net.progressit.progressive.PChangeDetection;
+import net.progressit.progressive.PChildPlan;
+import net.progressit.progressive.PChildrenPlan;
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PEventListener;
+import net.progressit.progressive.PLifecycleHandler;
+import net.progressit.progressive.PPartition;
+import net.progressit.progressive.PPlacers;
+import net.progressit.progressive.helpers.PComponentHelper;
+import net.progressit.progressive.helpers.PSimpleLifecycleHandler;
+
+/**
+ * A scrolling list which only mounts row components for the visible rows (plus some overscan).
+ * <p>The props are the full list of items. Rows have a fixed height, and each row is a PComponent (made by the row factory) which takes one item as its props.
+ * Row components are kept per slot, and the plan always uses the same component for the same slot, so scrolling re-uses the mounted rows
+ * through the usual prefix re-use, just with different props. Memory stays constant however long the item list is.</p>
+ * <p>The item list has to be immutable, like all data. Its content is never walked, beyond the visible window.</p>
+ *
+ * @author theodore.r
+ *
+ * @param <T> item type
+ */
+public class PVirtualList<T> extends PComponent<PVirtualList.PVirtualListData<T>, List<T>>{
+	@Data
+	@Builder(toBuilder = true)
+	public static class PVirtualListData<T>{
+		private final List<T> items;
+		private final int firstVisible;
+		private final int visibleCount;
+	}
+
+	private static final int DEFAULT_OVERSCAN = 5;
+
+	private final int rowHeight;
+	private final int overscan;
+	private final Function<PPlacers, PComponent<?, T>> rowFactory;
+	private final Optional<PEventListener> rowListener;
+
+	private final RowsPanel rowsPanel = new RowsPanel();
+	private final JScrollPane scrollPane = new JScrollPane(rowsPanel);
+	private final PPlacers rowPlacers = PComponentHelper.newSimpleContainerPlacer(rowsPanel);
+
+	/**
+	 * Row components by slot (visible position), created as needed.
+	 */
+	private final List<PComponent<?, T>> rows = new ArrayList<>();
+
+	private PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+		@Override
+		public void postProps() {
+			List<T> items = getProps()==null?Collections.emptyList():getProps();
+			PVirtualListData<T> data = getData();
+			if(data==null) {
+				setData(PVirtualListData.<T>builder().items(items).firstVisible(0).visibleCount(visibleRowCount()).build());
+			}else {
+				setData(data.toBuilder().items(items).build());
+			}
+		}
+	};
+
+	public PVirtualList(PPlacers placers, EventBus globalBus, int rowHeight, Function<PPlacers, PComponent<?, T>> rowFactory, Optional<PEventListener> rowListener) {
+		this(placers, globalBus, rowHeight, DEFAULT_OVERSCAN, rowFactory, rowListener);
+	}
+	public PVirtualList(PPlacers placers, EventBus globalBus, int rowHeight, int overscan, Function<PPlacers, PComponent<?, T>> rowFactory, Optional<PEventListener> rowListener) {
+		super(placers, globalBus);
+		this.rowHeight = rowHeight;
+		this.overscan = overscan;
+		this.rowFactory = rowFactory;
+		this.rowListener = rowListener;
+
+		scrollPane.getVerticalScrollBar().setUnitIncrement(rowHeight);
+		scrollPane.getViewport().addChangeListener((e)->{ //Once, so that placing the list again does not add another
+			onViewportChanged();
+		});
+	}
+
+	private void onViewportChanged() {
+		PVirtualListData<T> data = getData();
+		if(data==null) {
+			return;
+		}
+		int firstVisible = scrollPane.getViewport().getViewPosition().y / rowHeight;
+		int visibleCount = visibleRowCount();
+		if(firstVisible!=data.getFirstVisible() || visibleCount!=data.getVisibleCount()) {
+			setData(data.toBuilder().firstVisible(firstVisible).visibleCount(visibleCount).build());
+		}
+	}
+
+	private int visibleRowCount() {
+		return (scrollPane.getViewport().getExtentSize().height + rowHeight - 1) / rowHeight + 1;
+	}
+
+	private int windowStart(PVirtualListData<T> data) {
+		return Math.max(0, Math.min(data.getFirstVisible() - overscan, data.getItems().size()));
+	}
+	private int windowEnd(PVirtualListData<T> data) {
+		return Math.min(data.getItems().size(), data.getFirstVisible() + data.getVisibleCount() + overscan);
+	}
+
+	@Override
+	protected PChangeDetection getChangeDetection() {
+		return PChangeDetection.IDENTITY_HASH; //Never walk the whole item list.
+	}
+
+	@Override
+	protected PPartition partitionForSelf(PVirtualListData<T> data) {
+		return PPartition.of(data.getItems().size(), windowStart(data));
+	}
+
+	@Override
+	protected PPartition partitionForChildren(PVirtualListData<T> data) {
+		int start = windowStart(data);
+		return PPartition.of(start, data.getItems().subList(start, Math.max(start, windowEnd(data))));
+	}
+
+	@Override
+	protected JComponent getUiComponent() {
+		return scrollPane;
+	}
+
+	@Override
+	protected void renderSelf(PVirtualListData<T> data) {
+		rowsPanel.itemCount = data.getItems().size();
+		rowsPanel.windowStart = windowStart(data);
+		rowsPanel.revalidate();
+		rowsPanel.repaint();
+	}
+
+	@Override
+	protected PChildrenPlan renderChildrenPlan(PVirtualListData<T> data) {
+		PChildrenPlan plan = new PChildrenPlan();
+		int start = windowStart(data);
+		int end = windowEnd(data);
+		for(int i=start;i<end;i++) {
+			plan.addChildPlan(PChildPlan.builder().component(rowForSlot(i - start)).props(data.getItems().get(i)).listener(rowListener).build());
+		}
+		return plan;
+	}
+
+	private PComponent<?, T> rowForSlot(int slot) {
+		while(rows.size()<=slot) {
+			rows.add(rowFactory.apply(rowPlacers));
+		}
+		return rows.get(slot);
+	}
+
+	@Override
+	protected PLifecycleHandler getLifecycleHandler() {
+		return lifecycleHandler;
+	}
+
+	@Override
+	protected List<Class<?>> declareEmittedEvents() {
+		return Arrays.asList();
+	}
+
+	/**
+	 * Sized for all the items, but holds only the mounted rows, which are laid out at their item positions.
+	 */
+	private class RowsPanel extends JPanel implements Scrollable{
+		private static final long serialVersionUID = 1L;
+
+		private int itemCount = 0;
+		private int windowStart = 0;
+
+		private RowsPanel() {
+			super(null);
+		}
+
+		@Override
+		public void doLayout() {
+			int width = getWidth();
+			Component[] children = getComponents();
+			for(int k=0;k<children.length;k++) {
+				children[k].setBounds(0, (windowStart + k) * rowHeight, width, rowHeight);
+			}
+		}
+		@Override
+		public Dimension getPreferredSize() {
+			int width = 0;
+			for(Component child:getComponents()) {
+				width = Math.max(width, child.getPreferredSize().width);
+			}
+			return new Dimension(width, itemCount * rowHeight);
+		}
+		@Override
+		public Dimension getPreferredScrollableViewportSize() {
+			return getPreferredSize();
+		}
+		@Override
+		public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+			return rowHeight;
+		}
+		@Override
+		public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+			return Math.max(rowHeight, (visibleRect.height / rowHeight) * rowHeight);
+		}
+		@Override
+		public boolean getScrollableTracksViewportWidth() {
+			return true;
+		}
+		@Override
+		public boolean getScrollableTracksViewportHeight() {
+			return getParent() instanceof JViewport && getParent().getHeight() > itemCount * rowHeight;
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package net.progressit.progressive.helpers;
 
+import java.awt.Component;
 import java.awt.Container;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
 
 import javax.swing.JComponent;
@@ -26,14 +30,55 @@ public class PComponentHelper {
 	public static PChildrenPlan emptyChildrenPlan() {
 		return new PChildrenPlan();
 	}
+	/**
+	 * Placers for a plain container. The bulk variants take the tree lock once per run, and remove a run in one pass from the end.
+	 */
 	public static PPlacers newSimpleContainerPlacer(Container container) {
-		return new PPlacers((c)->{container.add(c);}, (c)->{container.remove(c);});
+		return new PPlacers((c)->{container.add(c);}, (c)->{container.remove(c);}, (c, before)->{container.add(c, indexOf(container, before));},
+				(cs)->{addAll(container, cs, null, null);}, (cs)->{removeAll(container, cs);}, (cs, before)->{addAll(container, cs, null, before);});
 	}
 	public static PPlacers newSimpleContainerPlacer(Container container, boolean addWrap) {
 		if(addWrap) {
-			return new PPlacers((c)->{container.add(c, "wrap");}, (c)->{container.remove(c);});
+			return new PPlacers((c)->{container.add(c, "wrap");}, (c)->{container.remove(c);}, (c, before)->{container.add(c, "wrap", indexOf(container, before));},
+					(cs)->{addAll(container, cs, "wrap", null);}, (cs)->{removeAll(container, cs);}, (cs, before)->{addAll(container, cs, "wrap", before);});
 		}else {
 			return newSimpleContainerPlacer(container);
 		}
 	}
+	/**
+	 * Placers which record into an in-memory node, for headless trees. A placed <code>PMemoryComponent</code> is recorded as its node.
+	 */
+	public static PPlacers newMemoryPlacer(PMemoryNode node) {
+		return new PPlacers((c)->{node.addChild(PMemoryComponent.memoryNodeOf(c));}, (c)->{node.removeChild(PMemoryComponent.memoryNodeOf(c));}, 
+				(c, before)->{node.insertChild(PMemoryComponent.memoryNodeOf(c), before==null?null:PMemoryComponent.memoryNodeOf(before));});
+	}
+	public static PPlacers newMemoryPlacer(PMemoryComponent component) {
+		return newMemoryPlacer(component.getNode());
+	}
+	private static void addAll(Container container, List<JComponent> components, Object constraints, Component before) {
+		synchronized(container.getTreeLock()) {
+			int index = indexOf(container, before);
+			for(JComponent component:components) {
+				container.add(component, constraints, index);
+				if(index>=0) index++;
+			}
+		}
+	}
+	private static void removeAll(Container container, List<JComponent> components) {
+		Set<Component> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+		toRemove.addAll(components);
+		synchronized(container.getTreeLock()) {
+			for(int i=container.getComponentCount()-1;i>=0 && !toRemove.isEmpty();i--) {
+				if(toRemove.remove(container.getComponent(i))) {
+					container.remove(i);
+				}
+			}
+		}
+	}
+	/**
+	 * Index to insert at, so that the component goes before <code>before</code>. Appends (-1) if there is no such sibling.
+	 */
+	private static int indexOf(Container container, Component before) {
+		return before==null?-1:container.getComponentZOrder(before);
+	}
 }
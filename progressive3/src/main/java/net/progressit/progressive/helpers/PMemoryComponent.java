@@ -0,0 +1,51 @@
+package net.progressit.progressive.helpers;
+
+import javax.swing.JComponent;
+
+/**
+ * A <code>JComponent</code> face for a <code>PMemoryNode</code>, so that it can be returned from <code>getUiComponent</code> and passed through <code>PPlacers</code>.
+ * <p>It holds no Swing state of its own. A memory placer (<code>PComponentHelper.newMemoryPlacer</code>) records the wrapped node instead of this component,
+ * so the memory tree is made of plain nodes, and <code>dump</code> shows it as such.</p>
+ *
+ * @author theodore.r
+ *
+ */
+public class PMemoryComponent extends JComponent {
+	private static final long serialVersionUID = 1L;
+	
+	private final PMemoryNode node;
+	
+	public PMemoryComponent(String type) {
+		this(new PMemoryNode(type));
+	}
+	public PMemoryComponent(PMemoryNode node) {
+		this.node = node;
+	}
+	
+	public PMemoryNode getNode() {
+		return node;
+	}
+	
+	public Object getProperty(String key) {
+		return node.getProperty(key);
+	}
+	public void setProperty(String key, Object value) {
+		node.setProperty(key, value);
+	}
+	
+	public String dump() {
+		return node.dump();
+	}
+	
+	/**
+	 * The node recorded in a memory tree for the given component: the wrapped node of a memory component, else the component itself.
+	 */
+	static Object memoryNodeOf(JComponent component) {
+		return component instanceof PMemoryComponent?((PMemoryComponent) component).node:component;
+	}
+	
+	@Override
+	public String toString() {
+		return "PMemoryComponent[" + node + "]";
+	}
+}
@@ -0,0 +1,135 @@
+package net.progressit.progressive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.scene.Node;
+
+/**
+ * Host adapter for JavaFX: the FX application thread is the UI thread (the EDT is also accepted, for FX embedded in Swing), 
+ * and renders are shown by <code>PRenderHighlighter</code> when it is on.
+ * <p>There is no layout hook: JavaFX coalesces <code>requestLayout</code> into the next pulse by itself.
+ * Idle tasks run once a pulse has gone by, so the frame which was pending when they were posted is painted first.</p>
+ * <p>A node is shown while it and its ancestors are visible (like the content of the selected tab). The <code>visibleProperty</code> of each ancestor is watched, 
+ * and the watch follows the node when it is moved to another parent or scene.</p>
+ * 
+ * @author theodore.r
+ *
+ */
+final class PFxHost implements PHostAdapter<Node> {
+	static final PFxHost INSTANCE = new PFxHost();
+	
+	private PFxHost() {
+	}
+	
+	@Override
+	public boolean isUiThread() {
+		return Platform.isFxApplicationThread() || SwingUtilities.isEventDispatchThread();
+	}
+	@Override
+	public String getUiThreadName() {
+		return "the FX application thread";
+	}
+	@Override
+	public void invokeLater(Runnable task) {
+		Platform.runLater(task);
+	}
+	
+	@Override
+	public void invokeWhenIdle(Runnable task) {
+		Platform.runLater(()->new AnimationTimer() {
+			private int frames = 0;
+			@Override
+			public void handle(long now) {
+				if(++frames>1) { //The first pulse has painted the pending frame
+					stop();
+					task.run();
+				}
+			}
+		}.start());
+	}
+	
+	@Override
+	public ShownWatch watchShown(Node uiComponent, Consumer<Boolean> listener) {
+		return new ShownWatcher(uiComponent, listener);
+	}
+	
+	@Override
+	public void selfRendered(Node uiComponent) {
+		if(PRenderHighlighter.isEnabled()) PRenderHighlighter.rendered(uiComponent);
+	}
+	
+	/**
+	 * Listens to the visibility and the parent of the node and each of its ancestors. Re-wired on every change, so only the current ancestors are listened to.
+	 */
+	private static final class ShownWatcher implements InvalidationListener, ShownWatch {
+		private final Node node;
+		private final Consumer<Boolean> listener;
+		private final List<Node> watched = new ArrayList<>();
+		private boolean shown;
+		private boolean unwatched = false;
+		
+		private ShownWatcher(Node node, Consumer<Boolean> listener) {
+			this.node = node;
+			this.listener = listener;
+			rewire();
+			shown = computeShown();
+		}
+		
+		@Override
+		public void invalidated(Observable observable) {
+			if(unwatched) {
+				return; //Removed while the change was being fired
+			}
+			rewire();
+			boolean nowShown = computeShown(); //Also re-validates the properties, so that they fire again
+			if(nowShown!=shown) {
+				shown = nowShown;
+				listener.accept(nowShown);
+			}
+		}
+		
+		@Override
+		public boolean isShown() {
+			return shown;
+		}
+		@Override
+		public void unwatch() {
+			unwatched = true;
+			unwire();
+		}
+		
+		private void rewire() {
+			unwire();
+			for(Node ancestor=node;ancestor!=null;ancestor=ancestor.getParent()) {
+				ancestor.visibleProperty().addListener(this);
+				ancestor.parentProperty().addListener(this);
+				watched.add(ancestor);
+			}
+		}
+		
+		private void unwire() {
+			for(Node ancestor:watched) {
+				ancestor.visibleProperty().removeListener(this);
+				ancestor.parentProperty().removeListener(this);
+			}
+			watched.clear();
+		}
+		
+		private boolean computeShown() {
+			for(Node ancestor=node;ancestor!=null;ancestor=ancestor.getParent()) {
+				if(!ancestor.isVisible()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -1,11 +1,17 @@
 package net.progressit.progressive;
 
-import java.util.Set;
-
 import com.google.common.eventbus.EventBus;
 
 import net.progressit.progressive.helpers.PComponentHelper;
 
+/**
+ * A PComponent without PComponent children. All of the data impacts the self render.
+ * <p>The partitions are given as <code>PPartition</code>s, so no sets are built on each <code>setData</code>.
+ * To customise them, override <code>partitionForSelf</code> / <code>partitionForChildren</code>.</p>
+ *
+ * @param <T>
+ * @param <U>
+ */
 public abstract class PLeafComponent <T, U> extends PComponent<T, U>{
 
 	public PLeafComponent(PPlacers placers, EventBus globalBus) {
@@ -13,13 +19,13 @@ public abstract class PLeafComponent <T, U> extends PComponent<T, U>{
 	}
 
 	@Override
-	protected Set<Object> partitionDataForSelf(T data) {
-		return PComponentHelper.setWithAllData(data);
+	protected PPartition partitionForSelf(T data) {
+		return PPartition.of(data);
 	}
 
 	@Override
-	protected Set<Object> partitionDataForChildren(T data) {
-		return PComponentHelper.setWithNoData();
+	protected PPartition partitionForChildren(T data) {
+		return PPartition.empty();
 	}
 
 	@Override
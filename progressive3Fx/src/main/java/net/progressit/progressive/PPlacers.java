@@ -1,20 +1,31 @@
 package net.progressit.progressive;
 
+import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import javafx.scene.Node;
-import lombok.Data;
 
 /**
  * Holds the UI placer and remover, usually provided by the parent to a PComponent.
  * PComponent just holds the reference to PPlacers, whereas the framework takes care of using the PPlacer.
  * Usually the child PComponent's Nodes are placed into the Parent PComponent's Node.
+ * <p>The optional <code>inserter</code> places a component before a given sibling (or at the end, if the sibling is null).
+ * It lets keyed children be moved into place instead of being re-appended.</p>
+ * <p>The optional bulk variants place, remove or insert a whole run of consecutive components in one call. See <code>PBasePlacers</code>.</p>
  * 
  * @author theodore.r
  *
  */
-@Data
-public class PPlacers{
-	final Consumer<Node> placer;
-	final Consumer<Node> remover;		
-}
\ No newline at end of file
+public class PPlacers extends PBasePlacers<Node>{
+	public PPlacers(Consumer<Node> placer, Consumer<Node> remover) {
+		super(placer, remover);
+	}
+	public PPlacers(Consumer<Node> placer, Consumer<Node> remover, BiConsumer<Node, Node> inserter) {
+		super(placer, remover, inserter);
+	}
+	public PPlacers(Consumer<Node> placer, Consumer<Node> remover, BiConsumer<Node, Node> inserter, 
+			Consumer<List<Node>> bulkPlacer, Consumer<List<Node>> bulkRemover, BiConsumer<List<Node>, Node> bulkInserter) {
+		super(placer, remover, inserter, bulkPlacer, bulkRemover, bulkInserter);
+	}
+}
@@ -0,0 +1,111 @@
+package net.progressit.progressive;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.effect.Blend;
+import javafx.scene.effect.BlendMode;
+import javafx.scene.effect.ColorInput;
+import javafx.scene.effect.Effect;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+/**
+ * Diagnostic mode which flashes a translucent overlay on the UI component of each PComponent, whenever the framework renders it (<code>renderSelf</code>).
+ * <p>The color shows how often the component renders: green for the occasional render, through yellow, to red at 10 or more renders a second.
+ * A component which goes red while typing elsewhere usually has a self partition which is too coarse.</p>
+ * <p>The overlay is a <code>Blend</code> effect with a <code>ColorInput</code> over the node's bounds, faded out by a <code>Timeline</code>.
+ * The node's own effect is kept as the bottom input during the flash, and put back after it. No nodes are added to the scene graph, so layout is not affected.</p>
+ * <p>Off by default (unless the system property <code>progressive.highlight</code> is <code>true</code>). When off, the render path only reads a volatile flag.</p>
+ *
+ * @author theodore.r
+ *
+ */
+public final class PRenderHighlighter {
+	private static final String FLASH_KEY = PRenderHighlighter.class.getName();
+	private static final Duration FLASH_DURATION = Duration.millis(600);
+	private static final double RATE_DECAY_NANOS = 1_000_000_000d;
+	private static final double HOT_RATE = 10;
+
+	private static volatile boolean enabled = Boolean.getBoolean("progressive.highlight");
+
+	private PRenderHighlighter() {
+	}
+
+	public static void enable() {
+		enabled = true;
+	}
+	public static void disable() {
+		enabled = false;
+	}
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Called by the framework (on the FX thread) after a component renders.
+	 */
+	static void rendered(Node uiComponent) {
+		Flash flash = (Flash) uiComponent.getProperties().get(FLASH_KEY);
+		if(flash==null) {
+			flash = new Flash(uiComponent);
+			uiComponent.getProperties().put(FLASH_KEY, flash);
+		}
+		flash.rendered(System.nanoTime());
+	}
+
+	/**
+	 * Flash state of one node. Renders per second are decayed over about a second.
+	 */
+	private static class Flash {
+		private final Node node;
+		private final ColorInput colorInput = new ColorInput();
+		private final Blend blend = new Blend(BlendMode.SRC_OVER);
+		private final Timeline fade = new Timeline();
+		private Effect originalEffect = null;
+		private long lastRender = 0;
+		private double rate = 0;
+
+		private Flash(Node node) {
+			this.node = node;
+			blend.setTopInput(colorInput);
+			fade.getKeyFrames().setAll(
+					new KeyFrame(Duration.ZERO, new KeyValue(blend.opacityProperty(), 1)),
+					new KeyFrame(FLASH_DURATION, new KeyValue(blend.opacityProperty(), 0)));
+			fade.setOnFinished((e)->end());
+		}
+
+		private void rendered(long now) {
+			rate = lastRender==0?1:rate * Math.exp(-(now - lastRender) / RATE_DECAY_NANOS) + 1;
+			lastRender = now;
+
+			Bounds bounds = node.getLayoutBounds();
+			colorInput.setX(bounds.getMinX());
+			colorInput.setY(bounds.getMinY());
+			colorInput.setWidth(bounds.getWidth());
+			colorInput.setHeight(bounds.getHeight());
+			double hue = 120 * (1 - Math.min(1, (rate - 1) / (HOT_RATE - 1))); //Green to red
+			colorInput.setPaint(Color.hsb(hue, 1, 1, 0.35));
+
+			if(node.getEffect()!=blend) {
+				originalEffect = node.getEffect();
+				blend.setBottomInput(originalEffect);
+				node.setEffect(blend);
+			}
+			fade.playFromStart();
+		}
+
+		private void end() {
+			if(node.getEffect()==blend) {
+				node.setEffect(originalEffect);
+			}
+			originalEffect = null;
+			blend.setBottomInput(null);
+			if(!enabled) {
+				node.getProperties().remove(FLASH_KEY);
+			}
+		}
+	}
+}
@@ -33,9 +33,9 @@ public class PSimpleTextArea extends PLeafComponent<String, String>{
 			@Override
 			public void prePlacement() {
 				
-				//Below gets fired even when we programmatically do setText on the UI field?
+				//Below gets fired even when we programmatically do setText on the UI field.
 				textArea.textProperty().addListener( (observable, oldValue, newValue)->{
-					//TODO: Does it stabilise and all the remove/insert events have fired?
+					//Conflated, so only the last value of a burst of changes is delivered.
 					post(new ValueEvent(newValue));
 				});
 			}
@@ -62,5 +62,10 @@ public class PSimpleTextArea extends PLeafComponent<String, String>{
 	protected List<Class<?>> declareEmittedEvents() {
 		return Arrays.asList(ValueEvent.class);
 	}
+	
+	@Override
+	protected List<Class<?>> declareConflatedEvents() {
+		return Arrays.asList(ValueEvent.class);
+	}
 
 }
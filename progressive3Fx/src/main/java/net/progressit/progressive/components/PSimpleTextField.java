@@ -33,9 +33,9 @@ public class PSimpleTextField extends PLeafComponent<String, String>{
 				post(new TFActionEvent(e));
 			});
 			
-			//Below gets fired even when we programmatically do setText on the UI field?
+			//Below gets fired even when we programmatically do setText on the UI field.
 			textField.textProperty().addListener( (observable, oldValue, newValue)->{
-				//TODO: Does it stabilise and all the remove/insert events have fired?
+				//Conflated, so only the last value of a burst of changes is delivered.
 				post(new TFValueEvent(newValue));
 			});
 		}
@@ -70,5 +70,10 @@ public class PSimpleTextField extends PLeafComponent<String, String>{
 	protected List<Class<?>> declareEmittedEvents() {
 		return Arrays.asList(TFActionEvent.class, TFValueEvent.class);
 	}
+	
+	@Override
+	protected List<Class<?>> declareConflatedEvents() {
+		return Arrays.asList(TFValueEvent.class);
+	}
 
 }
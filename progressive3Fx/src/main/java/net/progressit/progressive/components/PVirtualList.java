@@ -0,0 +1,214 @@
+package net.progressit.progressive.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.eventbus.EventBus;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+import lombok.Builder;
+import lombok.Data;
+import net.progressit.progressive.PChangeDetection;
+import net.progressit.progressive.PChildPlan;
+import net.progressit.progressive.PChildrenPlan;
+import net.progressit.progressive.PComponent;
+import net.progressit.progressive.PEventListener;
+import net.progressit.progressive.PLifecycleHandler;
+import net.progressit.progressive.PPartition;
+import net.progressit.progressive.PPlacers;
+import net.progressit.progressive.helpers.PComponentHelper;
+import net.progressit.progressive.helpers.PSimpleLifecycleHandler;
+
+/**
+ * A scrolling list which only mounts row components for the visible rows (plus some overscan).
+ * <p>The props are the full list of items. Rows have a fixed height, and each row is a PComponent (made by the row factory) which takes one item as its props.
+ * Row components are kept per slot, and the plan always uses the same component for the same slot, so scrolling re-uses the mounted rows
+ * through the usual prefix re-use, just with different props. Memory stays constant however long the item list is.</p>
+ * <p>The item list has to be immutable, like all data. Its content is never walked, beyond the visible window.</p>
+ *
+ * @author theodore.r
+ *
+ * @param <T> item type
+ */
+public class PVirtualList<T> extends PComponent<PVirtualList.PVirtualListData<T>, List<T>>{
+	@Data
+	@Builder(toBuilder = true)
+	public static class PVirtualListData<T>{
+		private final List<T> items;
+		private final int firstVisible;
+		private final int visibleCount;
+	}
+
+	private static final int DEFAULT_OVERSCAN = 5;
+
+	private final double rowHeight;
+	private final int overscan;
+	private final Function<PPlacers, PComponent<?, T>> rowFactory;
+	private final Optional<PEventListener> rowListener;
+
+	private int windowStart = 0;
+	private final Pane rowsPane = new Pane() {
+		@Override
+		protected void layoutChildren() {
+			double width = getWidth();
+			double offset = scrollBar.getValue();
+			List<Node> children = getChildren();
+			for(int k=0;k<children.size();k++) {
+				children.get(k).resizeRelocate(0, (windowStart + k) * rowHeight - offset, width, rowHeight);
+			}
+		}
+	};
+	private final ScrollBar scrollBar = new ScrollBar();
+	private final BorderPane mainPane = new BorderPane(rowsPane, null, scrollBar, null, null);
+	private final PPlacers rowPlacers = PComponentHelper.newSimpleContainerPlacer(rowsPane);
+
+	/**
+	 * Row components by slot (visible position), created as needed.
+	 */
+	private final List<PComponent<?, T>> rows = new ArrayList<>();
+
+	private PLifecycleHandler lifecycleHandler = new PSimpleLifecycleHandler() {
+		@Override
+		public void postProps() {
+			List<T> items = getProps()==null?Collections.emptyList():getProps();
+			PVirtualListData<T> data = getData();
+			if(data==null) {
+				setData(PVirtualListData.<T>builder().items(items).firstVisible(0).visibleCount(visibleRowCount()).build());
+			}else {
+				setData(data.toBuilder().items(items).build());
+			}
+		}
+	};
+
+	public PVirtualList(PPlacers placers, EventBus globalBus, double rowHeight, Function<PPlacers, PComponent<?, T>> rowFactory, Optional<PEventListener> rowListener) {
+		this(placers, globalBus, rowHeight, DEFAULT_OVERSCAN, rowFactory, rowListener);
+	}
+	public PVirtualList(PPlacers placers, EventBus globalBus, double rowHeight, int overscan, Function<PPlacers, PComponent<?, T>> rowFactory, Optional<PEventListener> rowListener) {
+		super(placers, globalBus);
+		this.rowHeight = rowHeight;
+		this.overscan = overscan;
+		this.rowFactory = rowFactory;
+		this.rowListener = rowListener;
+
+		Rectangle clip = new Rectangle();
+		clip.widthProperty().bind(rowsPane.widthProperty());
+		clip.heightProperty().bind(rowsPane.heightProperty());
+		rowsPane.setClip(clip);
+		rowsPane.setMinHeight(0);
+
+		scrollBar.setOrientation(Orientation.VERTICAL);
+		scrollBar.setUnitIncrement(rowHeight);
+		//Listeners are added once, so that placing the list again does not add more
+		scrollBar.valueProperty().addListener((observable, oldValue, newValue)->{
+			onViewportChanged();
+			rowsPane.requestLayout();
+		});
+		rowsPane.heightProperty().addListener((observable, oldValue, newValue)->{
+			PVirtualListData<T> data = getData();
+			updateScrollBar(data==null?0:data.getItems().size());
+			onViewportChanged();
+		});
+		rowsPane.setOnScroll((e)->{
+			scrollBar.setValue(Math.max(scrollBar.getMin(), Math.min(scrollBar.getMax(), scrollBar.getValue() - e.getDeltaY())));
+		});
+	}
+
+	private void onViewportChanged() {
+		PVirtualListData<T> data = getData();
+		if(data==null) {
+			return;
+		}
+		int firstVisible = (int) (scrollBar.getValue() / rowHeight);
+		int visibleCount = visibleRowCount();
+		if(firstVisible!=data.getFirstVisible() || visibleCount!=data.getVisibleCount()) {
+			setData(data.toBuilder().firstVisible(firstVisible).visibleCount(visibleCount).build());
+		}
+	}
+
+	private int visibleRowCount() {
+		return (int) Math.ceil(rowsPane.getHeight() / rowHeight) + 1;
+	}
+
+	private void updateScrollBar(int itemCount) {
+		double viewHeight = rowsPane.getHeight();
+		double max = Math.max(0, itemCount * rowHeight - viewHeight);
+		scrollBar.setMax(max);
+		scrollBar.setVisibleAmount(max==0?0:viewHeight * max / (itemCount * rowHeight));
+		scrollBar.setBlockIncrement(Math.max(rowHeight, viewHeight - rowHeight));
+		if(scrollBar.getValue()>max) {
+			scrollBar.setValue(max);
+		}
+	}
+
+	private int windowStart(PVirtualListData<T> data) {
+		return Math.max(0, Math.min(data.getFirstVisible() - overscan, data.getItems().size()));
+	}
+	private int windowEnd(PVirtualListData<T> data) {
+		return Math.min(data.getItems().size(), data.getFirstVisible() + data.getVisibleCount() + overscan);
+	}
+
+	@Override
+	protected PChangeDetection getChangeDetection() {
+		return PChangeDetection.IDENTITY_HASH; //Never walk the whole item list.
+	}
+
+	@Override
+	protected PPartition partitionForSelf(PVirtualListData<T> data) {
+		return PPartition.of(data.getItems().size(), windowStart(data));
+	}
+
+	@Override
+	protected PPartition partitionForChildren(PVirtualListData<T> data) {
+		int start = windowStart(data);
+		return PPartition.of(start, data.getItems().subList(start, Math.max(start, windowEnd(data))));
+	}
+
+	@Override
+	protected Node getUiComponent() {
+		return mainPane;
+	}
+
+	@Override
+	protected void renderSelf(PVirtualListData<T> data) {
+		windowStart = windowStart(data);
+		updateScrollBar(data.getItems().size());
+		rowsPane.requestLayout();
+	}
+
+	@Override
+	protected PChildrenPlan renderChildrenPlan(PVirtualListData<T> data) {
+		PChildrenPlan plan = new PChildrenPlan();
+		int start = windowStart(data);
+		int end = windowEnd(data);
+		for(int i=start;i<end;i++) {
+			plan.addChildPlan(PChildPlan.builder().component(rowForSlot(i - start)).props(data.getItems().get(i)).listener(rowListener).build());
+		}
+		return plan;
+	}
+
+	private PComponent<?, T> rowForSlot(int slot) {
+		while(rows.size()<=slot) {
+			rows.add(rowFactory.apply(rowPlacers));
+		}
+		return rows.get(slot);
+	}
+
+	@Override
+	protected PLifecycleHandler getLifecycleHandler() {
+		return lifecycleHandler;
+	}
+
+	@Override
+	protected List<Class<?>> declareEmittedEvents() {
+		return Arrays.asList();
+	}
+}
@@ -1,5 +1,6 @@
 package net.progressit.progressive.helpers;
 
+import java.util.HashSet;
 import java.util.Set;
 
 import org.tbee.javafx.scene.layout.MigPane;
@@ -27,8 +28,12 @@ public class PComponentHelper {
 	public static PChildrenPlan emptyChildrenPlan() {
 		return new PChildrenPlan();
 	}
+	/**
+	 * Placers for a plain pane. The bulk variants change the children list once per run, so there is one change event and one layout request.
+	 */
 	public static PPlacers newSimpleContainerPlacer(Pane container) {
-		return new PPlacers((c)->{container.getChildren().add(c);}, (c)->{container.getChildren().add(c);});
+		return new PPlacers((c)->{container.getChildren().add(c);}, (c)->{container.getChildren().remove(c);}, (c, before)->{container.getChildren().add(indexOf(container, before), c);},
+				(cs)->{container.getChildren().addAll(cs);}, (cs)->{container.getChildren().removeAll(new HashSet<>(cs));}, (cs, before)->{container.getChildren().addAll(indexOf(container, before), cs);});
 	}
 	public static PPlacers newSimpleContainerPlacer(MigPane container, boolean addWrap) {
 		if(addWrap) {
@@ -37,4 +42,17 @@ public class PComponentHelper {
 			return newSimpleContainerPlacer(container);
 		}
 	}
+	/**
+	 * Placers which record into an in-memory node, for headless trees.
+	 */
+	public static PPlacers newMemoryPlacer(PMemoryNode node) {
+		return new PPlacers(node::addChild, node::removeChild, node::insertChild);
+	}
+	/**
+	 * Index to insert at, so that the component goes before <code>before</code>. Appends if there is no such sibling.
+	 */
+	private static int indexOf(Pane container, Node before) {
+		int index = before==null?-1:container.getChildren().indexOf(before);
+		return index<0?container.getChildren().size():index;
+	}
 }